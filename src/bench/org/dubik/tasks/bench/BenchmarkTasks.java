@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.bench;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.TaskHighlightingType;
+import org.dubik.tasks.model.TaskPriority;
+import org.dubik.tasks.model.impl.TaskBuilder;
+import org.dubik.tasks.model.impl.TaskModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds task models of a given size for the benchmarks. Every top level task has
+ * {@link #SUB_TASKS} sub tasks and each of them has the same amount of sub tasks,
+ * every third leaf task is completed.
+ */
+final class BenchmarkTasks {
+    static final int SUB_TASKS = 9;
+
+    private BenchmarkTasks() {
+    }
+
+    static TaskModel createModel(int size) {
+        TaskModel model = new TaskModel();
+        int count = 0;
+        while (count < size) {
+            ITask top = model.addTask(null, createTask(count++));
+            for (int i = 0; i < SUB_TASKS && count < size; i++) {
+                ITask sub = model.addTask(top, createTask(count++));
+                for (int j = 0; j < SUB_TASKS && count < size; j++) {
+                    model.addTask(sub, createTask(count++));
+                }
+            }
+        }
+
+        return model;
+    }
+
+    static ITask createTask(int number) {
+        TaskPriority[] priorities = TaskPriority.values();
+        return new TaskBuilder()
+                .setTitle("Task " + number)
+                .setDescription(number % 5 == 0 ? "Description of task " + number + " <with> \"markup\" & entities" : null)
+                .setPriority(priorities[number % priorities.length])
+                .setEstimatedTime(number % 120)
+                .setActualTime(number % 90)
+                .setCreationTime(1356998400000L + number * 1000L)
+                .setCompleted(number % 3 == 0)
+                .setHighlighted(number % 7 == 0)
+                .setHighlightingType(TaskHighlightingType.Green)
+                .build();
+    }
+
+    /**
+     * Returns all tasks without sub tasks, in the tree order.
+     */
+    static List<ITask> leaves(TaskModel model) {
+        List<ITask> leaves = new ArrayList<ITask>();
+        for (int i = 0; i < model.size(); i++) {
+            collectLeaves(model.getTask(i), leaves);
+        }
+
+        return leaves;
+    }
+
+    private static void collectLeaves(ITask task, List<ITask> leaves) {
+        if (task.size() == 0) {
+            leaves.add(task);
+        }
+
+        for (int i = 0; i < task.size(); i++) {
+            collectLeaves(task.get(i), leaves);
+        }
+    }
+}
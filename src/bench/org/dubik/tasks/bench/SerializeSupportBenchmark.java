@@ -0,0 +1,109 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.bench;
+
+import org.dubik.tasks.model.impl.TaskModel;
+import org.dubik.tasks.utils.BinarySerializeSupport;
+import org.dubik.tasks.utils.SerializeSupport;
+import org.dubik.tasks.utils.StreamingSerializeSupport;
+import org.jdom.Element;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing the tasks in all supported formats: the settings element,
+ * the streamed XML store and the binary snapshot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SerializeSupportBenchmark {
+    private static final long GENERATION = 1;
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private TaskModel model;
+    private Element element;
+    private byte[] xml;
+    private byte[] snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        model = BenchmarkTasks.createModel(size);
+
+        element = new Element("component");
+        SerializeSupport.writeExternal(model, element);
+
+        ByteArrayOutputStream xmlOut = new ByteArrayOutputStream();
+        StreamingSerializeSupport.writeTasks(model, xmlOut, GENERATION);
+        xml = xmlOut.toByteArray();
+
+        ByteArrayOutputStream snapshotOut = new ByteArrayOutputStream();
+        BinarySerializeSupport.writeTasks(model, new DataOutputStream(snapshotOut), GENERATION);
+        snapshot = snapshotOut.toByteArray();
+    }
+
+    @Benchmark
+    public Element writeExternal() throws Exception {
+        Element result = new Element("component");
+        SerializeSupport.writeExternal(model, result);
+        return result;
+    }
+
+    @Benchmark
+    public TaskModel readExternal() throws Exception {
+        TaskModel result = new TaskModel();
+        SerializeSupport.readExternal(result, element);
+        return result;
+    }
+
+    @Benchmark
+    public byte[] writeStreaming() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(xml.length);
+        StreamingSerializeSupport.writeTasks(model, out, GENERATION);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public TaskModel readStreaming() throws Exception {
+        TaskModel result = new TaskModel();
+        StreamingSerializeSupport.readTasks(result, new ByteArrayInputStream(xml));
+        return result;
+    }
+
+    @Benchmark
+    public byte[] writeSnapshot() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length);
+        BinarySerializeSupport.writeTasks(model, new DataOutputStream(out), GENERATION);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public TaskModel readSnapshot() throws Exception {
+        TaskModel result = new TaskModel();
+        BinarySerializeSupport.readTasks(result, ByteBuffer.wrap(snapshot), GENERATION);
+        return result;
+    }
+}
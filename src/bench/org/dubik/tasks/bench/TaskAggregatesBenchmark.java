@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.bench;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.impl.Task;
+import org.dubik.tasks.model.impl.TaskModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Roll-up values of the tasks, i.e. actual and estimated time, completion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TaskAggregatesBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private TaskModel model;
+    private List<ITask> leaves;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = BenchmarkTasks.createModel(size);
+        leaves = BenchmarkTasks.leaves(model);
+    }
+
+    @Benchmark
+    public void topLevelAggregates(Blackhole blackhole) {
+        for (int i = 0; i < model.size(); i++) {
+            readAggregates(model.getTask(i), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void aggregatesAfterLeafChange(Blackhole blackhole) {
+        //like a running timer, which changes one task and the tree repaints its parents
+        Task task = (Task) nextLeaf();
+        task.setActualTime(task.getOwnActualTime() + 1);
+        for (ITask t = task; t != null; t = t.getParent()) {
+            readAggregates(t, blackhole);
+        }
+    }
+
+    private void readAggregates(ITask task, Blackhole blackhole) {
+        blackhole.consume(task.getActualTime());
+        blackhole.consume(task.getEstimatedTime());
+        blackhole.consume(task.isCompleted());
+        blackhole.consume(task.getCompletionRatio());
+    }
+
+    private ITask nextLeaf() {
+        next = (next + 7919) % leaves.size();
+        return leaves.get(next);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.bench;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.impl.TaskModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding, moving and deleting tasks in the model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TaskModelBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private TaskModel model;
+    private List<ITask> leaves;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = BenchmarkTasks.createModel(size);
+        leaves = BenchmarkTasks.leaves(model);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TaskModel addTasks() {
+        return BenchmarkTasks.createModel(size);
+    }
+
+    @Benchmark
+    public ITask moveTask() {
+        //moves a leaf to the first top level task and back, so the shape of the tree is kept
+        ITask task = nextLeaf();
+        ITask parent = task.getParent();
+        int index = model.indexOf(task);
+
+        model.moveTask(task, model.getTask(0), 0);
+        model.moveTask(task, parent, index);
+        return task;
+    }
+
+    @Benchmark
+    public ITask deleteTask() {
+        ITask task = nextLeaf();
+        ITask parent = task.getParent();
+        int index = model.indexOf(task);
+
+        model.deleteTask(task);
+        model.addTask(parent, task);
+        model.moveTask(task, parent, index);
+        return task;
+    }
+
+    @Benchmark
+    public ITask moveUpAndDown() {
+        ITask task = nextLeaf();
+        if (model.canMoveUp(task)) {
+            model.moveUp(task);
+            model.moveDown(task);
+        }
+        return task;
+    }
+
+    private ITask nextLeaf() {
+        next = (next + 7919) % leaves.size();
+        return leaves.get(next);
+    }
+}
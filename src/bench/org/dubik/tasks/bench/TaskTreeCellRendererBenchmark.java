@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.bench;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.TaskHighlightingType;
+import org.dubik.tasks.model.impl.TaskModel;
+import org.dubik.tasks.settings.TaskSettings;
+import org.dubik.tasks.ui.tree.TaskDetailsFormatter;
+import org.dubik.tasks.ui.tree.TaskTreeCellRenderer;
+import org.dubik.tasks.ui.tree.TaskTreeModel;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of a single tree row, as done for every painted row while scrolling.
+ * Run with the GC profiler to see the garbage per row, e.g.
+ * <code>-Dbench.args="TaskTreeCellRendererBenchmark -prof gc"</code>,
+ * see <code>gc.alloc.rate.norm</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TaskTreeCellRendererBenchmark {
+    @Param({"1000", "10000"})
+    public int size;
+
+    private JTree tree;
+    private TaskTreeCellRenderer renderer;
+    private TaskDetailsFormatter detailsFormatter;
+    private StringBuilder details = new StringBuilder();
+    private List<ITask> rows;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskModel model = BenchmarkTasks.createModel(size);
+        rows = new ArrayList<ITask>();
+        collectRows(model, rows);
+        for (int i = 0; i < rows.size(); i += 4) {
+            model.highlightTask(rows.get(i));
+            model.setTaskHighlightingType(rows.get(i), TaskHighlightingType.values()[i % TaskHighlightingType.values().length]);
+        }
+
+        TaskSettings settings = new TaskSettings();
+        settings.setPropagatePriority(true);
+        settings.setEnableActualTime(true);
+
+        tree = new JTree(new TaskTreeModel(model));
+        renderer = new TaskTreeCellRenderer(settings);
+        detailsFormatter = new TaskDetailsFormatter(settings);
+    }
+
+    @Benchmark
+    public Component renderRow() {
+        ITask task = nextRow();
+        return renderer.getTreeCellRendererComponent(tree, task, false, false, task.size() == 0, next, false);
+    }
+
+    @Benchmark
+    public int formatDetails() {
+        details.setLength(0);
+        detailsFormatter.appendTaskDetails(details, nextRow());
+        return details.length();
+    }
+
+    private ITask nextRow() {
+        next = (next + 1) % rows.size();
+        return rows.get(next);
+    }
+
+    private static void collectRows(TaskModel model, List<ITask> rows) {
+        for (int i = 0; i < model.size(); i++) {
+            collectRows(model.getTask(i), rows);
+        }
+    }
+
+    private static void collectRows(ITask task, List<ITask> rows) {
+        rows.add(task);
+        for (int i = 0; i < task.size(); i++) {
+            collectRows(task.get(i), rows);
+        }
+    }
+}
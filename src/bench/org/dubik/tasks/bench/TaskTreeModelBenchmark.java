@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.bench;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.impl.TaskModel;
+import org.dubik.tasks.ui.filters.HideCompletedFilter;
+import org.dubik.tasks.ui.tree.TaskTreeModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree adapter of the model, as it's used by the tree: walking the nodes, looking up
+ * paths and handling change events. Runs with and without task filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TaskTreeModelBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"none", "hideCompleted"})
+    public String filter;
+
+    private TaskModel model;
+    private TaskTreeModel treeModel;
+    private List<ITask> leaves;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        model = BenchmarkTasks.createModel(size);
+        treeModel = new TaskTreeModel(model);
+        if ("hideCompleted".equals(filter)) {
+            treeModel.setTaskFilter(new HideCompletedFilter());
+        }
+        leaves = BenchmarkTasks.leaves(model);
+    }
+
+    @Benchmark
+    public void walkTree(Blackhole blackhole) {
+        walk(treeModel.getRoot(), blackhole);
+    }
+
+    @Benchmark
+    public Object[] findPathToObject() {
+        return treeModel.findPathToObject(treeModel.getRoot(), nextLeaf());
+    }
+
+    @Benchmark
+    public ITask completeTask() {
+        //every change is handled by the tree model, which resolves the path of the task
+        ITask task = nextLeaf();
+        if (task.isCompleted()) {
+            model.uncompleteTask(task);
+            model.completeTask(task);
+        }
+        else {
+            model.completeTask(task);
+            model.uncompleteTask(task);
+        }
+        return task;
+    }
+
+    private void walk(Object node, Blackhole blackhole) {
+        int count = treeModel.getChildCount(node);
+        for (int i = 0; i < count; i++) {
+            Object child = treeModel.getChild(node, i);
+            blackhole.consume(child);
+            walk(child, blackhole);
+        }
+    }
+
+    private ITask nextLeaf() {
+        next = (next + 7919) % leaves.size();
+        return leaves.get(next);
+    }
+}
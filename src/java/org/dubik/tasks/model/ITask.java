@@ -1,141 +1,167 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.model;
-
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-
-/**
- * Interface for a task.
- *
- * @author Sergiy Dubovik
- */
-public interface ITask {
-    /**
-     * Returns task's title.
-     *
-     * @return task's title
-     */
-    @Nullable
-    public String getTitle();
-
-
-    /**
-     * Returns the task's description
-     * @return
-     */
-    @Nullable
-    public String getDescription();
-
-    /**
-     * Return's task's priority.
-     *
-     * @return task's priority
-     */
-    @NotNull
-    public TaskPriority getPriority();
-
-    /**
-     * Returns estimated time for a task.
-     *
-     * @return estimated time
-     */
-    public long getEstimatedTime();
-
-    /**
-     * Returns actual time spend on task. If task has sub tasks,
-     * it returns accumulated actual time.
-     *
-     * @return actual time
-     */
-    public long getActualTime();
-
-    /**
-     * Return's task's creation time.
-     *
-     * @return creation time
-     */
-    public long getCreationTime();
-
-    /**
-     * Checks whethe the task is complete.
-     *
-     * @return <code>true</code> if complete, <code>false</code> otherwise
-     */
-    public boolean isCompleted();
-
-    /**
-     * Checks whether the task is highlighted.
-     *
-     * @return <code>true</code> if complete, <code>false</code> otherwise
-     */
-    public boolean isHighlighted();
-
-    /**
-     * Returns task's highlighting type.
-     *
-     * @return task's highlighting type
-     */
-    @NotNull
-    public TaskHighlightingType getHighlightingType();
-
-    /**
-     * Returns completion ratio - 0% - 100%.
-     *
-     * @return 0% - no completed tasks, 100% all sub tasks completed
-     */
-    public int getCompletionRatio();
-
-    /**
-     * Adds sub task.
-     *
-     * @param task reference to a sub task, can't be null.
-     */
-    public void add(@NotNull ITask task);
-
-    /**
-     * Adds sub task at a specified location.
-     *
-     * @param index the index to insert the task at
-     * @param task reference to a sub task, can't be null.
-     */
-    public void add(int index, @NotNull ITask task);
-
-    /**
-     * Returns amount of sub tasks.
-     *
-     * @return amount of sub tasks
-     */
-    public int size();
-
-    /**
-     * Returns sub task with a given index.
-     *
-     * @param index index of sub task
-     * @return sub task reference
-     */
-    public ITask get(int index);
-
-    public ITask getParent();
-
-    public int indexOf(ITask subTask);
-
-    public void start();
-
-    public void stop();
-
-    public boolean isRunning();
-}
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interface for a task.
+ *
+ * @author Sergiy Dubovik
+ */
+public interface ITask {
+    /**
+     * Returns id of the task. Id is given by the task model when the task is added and
+     * it's kept in the stores, so it identifies the task also between sessions.
+     *
+     * @return id of the task, 0 if the task hasn't been added to a model
+     */
+    public long getId();
+
+    /**
+     * Returns task's title.
+     *
+     * @return task's title
+     */
+    @Nullable
+    public String getTitle();
+
+
+    /**
+     * Returns the task's description
+     * @return
+     */
+    @Nullable
+    public String getDescription();
+
+    /**
+     * Return's task's priority.
+     *
+     * @return task's priority
+     */
+    @NotNull
+    public TaskPriority getPriority();
+
+    /**
+     * Returns the highest priority of the task and its sub tasks.
+     *
+     * @param oneLevelOnly <code>true</code> to take only direct sub tasks into account
+     * @return highest priority
+     */
+    @NotNull
+    public TaskPriority getHighestPriority(boolean oneLevelOnly);
+
+    /**
+     * Returns estimated time for a task.
+     *
+     * @return estimated time
+     */
+    public long getEstimatedTime();
+
+    /**
+     * Returns actual time spend on task. If task has sub tasks,
+     * it returns accumulated actual time.
+     *
+     * @return actual time
+     */
+    public long getActualTime();
+
+    /**
+     * Return's task's creation time.
+     *
+     * @return creation time
+     */
+    public long getCreationTime();
+
+    /**
+     * Checks whethe the task is complete.
+     *
+     * @return <code>true</code> if complete, <code>false</code> otherwise
+     */
+    public boolean isCompleted();
+
+    /**
+     * Checks whether the task is highlighted.
+     *
+     * @return <code>true</code> if complete, <code>false</code> otherwise
+     */
+    public boolean isHighlighted();
+
+    /**
+     * Returns task's highlighting type.
+     *
+     * @return task's highlighting type
+     */
+    @NotNull
+    public TaskHighlightingType getHighlightingType();
+
+    /**
+     * Returns completion ratio - 0% - 100%.
+     *
+     * @return 0% - no completed tasks, 100% all sub tasks completed
+     */
+    public int getCompletionRatio();
+
+    /**
+     * Adds sub task.
+     *
+     * @param task reference to a sub task, can't be null.
+     */
+    public void add(@NotNull ITask task);
+
+    /**
+     * Adds sub task at a specified location.
+     *
+     * @param index the index to insert the task at
+     * @param task reference to a sub task, can't be null.
+     */
+    public void add(int index, @NotNull ITask task);
+
+    /**
+     * Returns amount of sub tasks.
+     *
+     * @return amount of sub tasks
+     */
+    public int size();
+
+    /**
+     * Returns sub task with a given index.
+     *
+     * @param index index of sub task
+     * @return sub task reference
+     */
+    public ITask get(int index);
+
+    public ITask getParent();
+
+    public int indexOf(ITask subTask);
+
+    /**
+     * Returns stamp of the last modification. Stamp grows whenever the task or any
+     * of its sub tasks is changed, so anything derived from the task can be reused
+     * as long as the stamp is the same.
+     *
+     * @return modification stamp
+     */
+    public long getModificationStamp();
+
+    public void start();
+
+    public void stop();
+
+    public boolean isRunning();
+}
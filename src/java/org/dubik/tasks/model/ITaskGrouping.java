@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Splits top level tasks into groups. Every group is identified by a key, e.g.
+ * grouping by priority uses priorities as the keys.
+ *
+ * @param <K> type of the group keys
+ */
+public interface ITaskGrouping<K> {
+    /**
+     * Returns keys of all groups, in the order the groups are shown.
+     *
+     * @return group keys
+     */
+    @NotNull
+    public List<K> getKeys();
+
+    /**
+     * Returns key of the group, which specified top level task belongs to.
+     *
+     * @param task top level task
+     * @return group key, one of {@link #getKeys()}, or <code>null</code> if task doesn't belong to any group
+     */
+    @Nullable
+    public K getKey(@NotNull ITask task);
+
+    /**
+     * Returns title of the group with specified key.
+     *
+     * @param key group key
+     * @return title
+     */
+    @NotNull
+    public String getTitle(K key);
+}
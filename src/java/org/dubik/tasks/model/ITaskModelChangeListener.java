@@ -1,62 +1,80 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.model;
-
-import java.util.EventListener;
-
-/**
- * Model change listener. Extend this interface and register it in the model.
- *
- * @author Sergiy Dubovik
- */
-public interface ITaskModelChangeListener extends EventListener{
-    /**
-     * Fired when new task added to a model.
-     *
-     * @param event task add event
-     */
-    public void handleAddTaskEvent(TaskChangeEvent event);
-
-    /**
-     * Fired just before deletion will occure. You can do some
-     * preprocessing here.
-     *
-     * @param event event task pre delete event
-     */
-    public void handlePreDeleteTaskEvent(TaskChangeEvent event);
-
-    /**
-     * Fired after task deletion occurded.
-     *
-     * @param event event task delete event
-     */
-    public void handleDeleteTaskEvent(TaskChangeEvent event);
-
-    /**
-     * Fired just before task change will occure. You can do some
-     * preprocessing here.
-     *
-     * @param event event task pre delete event
-     */
-    public void handlePreChangeTaskEvent(TaskChangeEvent event);
-
-    /**
-     * Fired after task change event occured.
-     *
-     * @param event event task change event
-     */
-    public void handleChangeTaskEvent(TaskChangeEvent event);
-}
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model;
+
+import java.util.EventListener;
+
+/**
+ * Model change listener. Extend this interface and register it in the model.
+ *
+ * @author Sergiy Dubovik
+ */
+public interface ITaskModelChangeListener extends EventListener{
+    /**
+     * Fired just before a task is added to a model. Task isn't in the
+     * model yet, parent of the event is the parent it's added to.
+     *
+     * @param event task pre add event
+     */
+    public void handlePreAddTaskEvent(TaskChangeEvent event);
+
+    /**
+     * Fired when new task added to a model.
+     *
+     * @param event task add event
+     */
+    public void handleAddTaskEvent(TaskChangeEvent event);
+
+    /**
+     * Fired just before deletion will occure. You can do some
+     * preprocessing here.
+     *
+     * @param event event task pre delete event
+     */
+    public void handlePreDeleteTaskEvent(TaskChangeEvent event);
+
+    /**
+     * Fired after task deletion occurded.
+     *
+     * @param event event task delete event
+     */
+    public void handleDeleteTaskEvent(TaskChangeEvent event);
+
+    /**
+     * Fired just before task change will occure. You can do some
+     * preprocessing here.
+     *
+     * @param event event task pre delete event
+     */
+    public void handlePreChangeTaskEvent(TaskChangeEvent event);
+
+    /**
+     * Fired after task change event occured.
+     *
+     * @param event event task change event
+     */
+    public void handleChangeTaskEvent(TaskChangeEvent event);
+
+    /**
+     * Fired after a batch of changes. Sub tasks of the event parent could be
+     * added, deleted, moved or changed in any way, task of the event is
+     * <code>null</code>. Sub tasks before the change and the changed ones are
+     * given by the event.
+     *
+     * @param event structure change event, parent is <code>null</code> for top level tasks
+     */
+    public void handleStructureChangeEvent(TaskChangeEvent event);
+}
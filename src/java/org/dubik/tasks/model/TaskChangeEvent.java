@@ -1,51 +1,131 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.model;
-
-/**
- * Represents change event made to a task model or a task.
- *
- * @author Sergiy Dubovik
- */
-public class TaskChangeEvent {
-
-    private ITask parent;
-    private ITask task;
-    private int index;
-
-    public TaskChangeEvent(ITask parent, ITask task, int index) {
-        this.parent = parent;
-        this.task = task;
-        this.index = index;
-    }
-
-    /**
-     * Returns task associated with change event.
-     *
-     * @return task
-     */
-    public ITask getTask() {
-        return task;
-    }
-
-    public int getIndex() {
-        return index;
-    }
-
-    public ITask getParent() {
-        return parent;
-    }
-}
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents change event made to a task model or a task.
+ *
+ * @author Sergiy Dubovik
+ */
+public class TaskChangeEvent {
+
+    private ITask parent;
+    private ITask task;
+    private int index;
+    private List<ITask> ancestors;
+
+    // structure change event only
+    private List<ITask> previousChildren = Collections.emptyList();
+    private List<ITask> changedTasks = Collections.emptyList();
+    private boolean ancestorChanged;
+
+    public TaskChangeEvent(ITask parent, ITask task, int index) {
+        this.parent = parent;
+        this.task = task;
+        this.index = index;
+    }
+
+    /**
+     * Creates structure change event, which has no task.
+     *
+     * @param parent           changed parent, <code>null</code> for top level tasks
+     * @param previousChildren sub tasks of the parent before the change
+     * @param changedTasks     sub tasks added to the parent, moved inside it or changed
+     * @param ancestorChanged  whether sub tasks of an ancestor of the parent were changed too
+     */
+    public TaskChangeEvent(ITask parent, List<ITask> previousChildren, List<ITask> changedTasks,
+                           boolean ancestorChanged) {
+        this(parent, null, -1);
+        this.previousChildren = Collections.unmodifiableList(previousChildren);
+        this.changedTasks = Collections.unmodifiableList(changedTasks);
+        this.ancestorChanged = ancestorChanged;
+    }
+
+    /**
+     * Returns task associated with change event.
+     *
+     * @return task
+     */
+    public ITask getTask() {
+        return task;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public ITask getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns sub tasks the parent of a structure change event had before the change.
+     * Some of them could be moved to other parents or deleted.
+     *
+     * @return previous sub tasks, empty for other events
+     */
+    public List<ITask> getPreviousChildren() {
+        return previousChildren;
+    }
+
+    /**
+     * Returns sub tasks of the parent of a structure change event, which were added
+     * to it, moved inside it or changed. Sub tasks not listed have the same values,
+     * but their own sub tasks could be changed, which is told by separate events.
+     *
+     * @return changed sub tasks, empty for other events
+     */
+    public List<ITask> getChangedTasks() {
+        return changedTasks;
+    }
+
+    /**
+     * Tells whether the same batch has changed sub tasks of an ancestor of the parent,
+     * so an event for that ancestor has been fired before this one.
+     *
+     * @return <code>true</code> if an ancestor was changed too
+     */
+    public boolean isAncestorChanged() {
+        return ancestorChanged;
+    }
+
+    /**
+     * Returns parent of the event and all its parents, starting from the nearest one.
+     * Roll-up values of these tasks, e.g. completion or actual time, may have been
+     * changed together with the task.
+     *
+     * @return ancestors of the task, empty for top level tasks
+     */
+    public List<ITask> getAncestors() {
+        if (ancestors == null) {
+            if (parent == null) {
+                ancestors = Collections.emptyList();
+            }
+            else {
+                ancestors = new ArrayList<ITask>();
+                for (ITask p = parent; p != null; p = p.getParent()) {
+                    ancestors.add(p);
+                }
+            }
+        }
+
+        return ancestors;
+    }
+}
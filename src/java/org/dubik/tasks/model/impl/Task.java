@@ -1,242 +1,363 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.model.impl;
-
-import org.dubik.tasks.model.ITask;
-import org.dubik.tasks.model.TaskHighlightingType;
-import org.dubik.tasks.model.TaskPriority;
-import org.dubik.tasks.utils.TaskTimer;
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * @author Sergiy Dubovik
- */
-public class Task implements ITask {
-    private String title;
-    private String description;
-    private TaskPriority priority = TaskPriority.Normal;
-    private long estimatedTime;
-    private long actualTime;
-    private long creationTime = System.currentTimeMillis();
-    private boolean completed;
-    private boolean highlighted;
-    private TaskHighlightingType highlightingType = TaskHighlightingType.Red;
-    private List<ITask> subTasks = new ArrayList<ITask>();
-    private ITask parent;
-    private boolean isRunning;
-
-    public Task() {
-    }
-
-    public Task(String title, String description) {
-        this.title = title;
-        this.description = description;
-    }
-
-    public Task(String title, String description, TaskPriority priority) {
-        this(title, description);
-        this.priority = priority;
-    }
-
-    public Task(String title, String description, TaskPriority priority, long estimatedTime) {
-        this(title, description, priority);
-        this.estimatedTime = estimatedTime;
-    }
-
-    public String getTitle() {
-        return title;
-    }
-
-    @Nullable
-    public String getDescription() {
-        return description;
-    }
-
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
-    @NotNull
-    public TaskPriority getPriority() {
-        if (priority == null) {
-            return TaskPriority.Normal;
-        }
-
-        return priority;
-    }
-
-    public void setPriority(@NotNull TaskPriority priority) {
-        this.priority = priority;
-    }
-
-    public long getEstimatedTime() {
-        long estimated = 0;
-        if (subTasks.size() > 0) {
-            for (ITask task : subTasks) {
-                estimated += task.getEstimatedTime();
-            }
-        }
-        else {
-            estimated = estimatedTime;
-        }
-
-        return estimated;
-    }
-
-    public long getActualTime() {
-        long actual = 0;
-        if (subTasks.size() > 0) {
-            for (ITask task : subTasks) {
-                actual += task.getActualTime();
-            }
-        }
-        else {
-            actual = actualTime;
-        }
-
-        return actual;
-    }
-
-    public void setActualTime(long actualTime) {
-        this.actualTime = actualTime;
-    }
-
-    public void setEstimatedTime(long estimatedTime) {
-        this.estimatedTime = estimatedTime;
-    }
-
-    public long getCreationTime() {
-        return creationTime;
-    }
-
-    public boolean isCompleted() {
-        boolean compl;
-        if (subTasks.size() > 0) {
-            compl = true;
-            for (ITask task : subTasks) {
-                compl = compl && task.isCompleted();
-            }
-            return compl;
-        }
-        else {
-            compl = completed;
-        }
-
-        return compl;
-    }
-
-    public void setHighlighted(boolean highlighted) {
-        this.highlighted = highlighted;
-    }
-
-    public boolean isHighlighted() {
-        return highlighted;
-    }
-
-    @NotNull
-    public TaskHighlightingType getHighlightingType() {
-        return highlightingType;
-    }
-
-    public void setHighlightingType(@NotNull TaskHighlightingType hightlightingType) {
-        this.highlightingType = hightlightingType;
-    }
-
-    public int getCompletionRatio() {
-        int totalTasks = subTasks.size();
-        if (totalTasks == 0) {
-            return isCompleted() ? 100 : 0;
-        }
-
-        int cumCompletionRatio = 0;
-        for (ITask task : subTasks) {
-            cumCompletionRatio += task.getCompletionRatio();
-        }
-
-        return cumCompletionRatio / totalTasks;
-    }
-
-    public void setCompleted(boolean completed) {
-        this.completed = completed;
-        stop();
-    }
-
-    public void setCreationTime(long creationTime) {
-        this.creationTime = creationTime;
-    }
-
-    public String toString() {
-        return title;
-    }
-
-    public void add(@NotNull ITask task) {
-        subTasks.add(task);
-        ((Task)task).setParent(this);
-    }
-
-    public void add(int index, @NotNull ITask task) {
-        subTasks.add(index, task);
-        ((Task) task).setParent(this);
-    }
-
-    public int size() {
-        return subTasks.size();
-    }
-
-    public ITask get(int index) {
-        return subTasks.get(index);
-    }
-
-    public void setParent(ITask parent) {
-        this.parent = parent;
-    }
-
-    public ITask getParent() {
-        return parent;
-    }
-
-    public void remove(ITask task) {
-        subTasks.remove(task);
-    }
-
-    public int indexOf(ITask subTask) {
-        assert subTask != null;
-
-        return subTasks.indexOf(subTask);
-    }
-
-    public boolean isRunning() {
-        return isRunning;
-    }
-
-    public void start() {
-        isRunning = true;
-        TaskTimer.startTask(this);
-    }
-
-    public void stop() {
-        isRunning = false;
-        TaskTimer.stopTask(this);
-    }
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model.impl;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.TaskHighlightingType;
+import org.dubik.tasks.model.TaskPriority;
+import org.dubik.tasks.utils.TaskTimer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * @author Sergiy Dubovik
+ */
+public class Task implements ITask {
+    private long id;
+    private String title;
+    private String description;
+    private TaskPriority priority = TaskPriority.Normal;
+    private long estimatedTime;
+    private long actualTime;
+    private long creationTime = System.currentTimeMillis();
+    private boolean completed;
+    private boolean highlighted;
+    private TaskHighlightingType highlightingType = TaskHighlightingType.Red;
+    private TaskList subTasks = new TaskList();
+    private ITask parent;
+    private int index = -1;
+    private boolean isRunning;
+
+    // roll-up values of the whole sub tree, recalculated lazily
+    private boolean aggregatesValid;
+    private long aggregatedEstimatedTime;
+    private long aggregatedActualTime;
+    private boolean aggregatedCompleted;
+    private int aggregatedCompletionRatio;
+    private TaskPriority highestPriority;
+    private TaskPriority highestPriorityOneLevel;
+
+    // incremented on every change of the task or its sub tasks
+    private long modificationStamp;
+    // model the task belongs to, its stamp is advanced with every change of the task
+    private TaskModel model;
+
+    public Task() {
+    }
+
+    public Task(String title, String description) {
+        this.title = title;
+        this.description = description;
+    }
+
+    public Task(String title, String description, TaskPriority priority) {
+        this(title, description);
+        this.priority = priority;
+    }
+
+    public Task(String title, String description, TaskPriority priority, long estimatedTime) {
+        this(title, description, priority);
+        this.estimatedTime = estimatedTime;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    void setId(long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    @Nullable
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        touch();
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        touch();
+    }
+
+    @NotNull
+    public TaskPriority getPriority() {
+        if (priority == null) {
+            return TaskPriority.Normal;
+        }
+
+        return priority;
+    }
+
+    public void setPriority(@NotNull TaskPriority priority) {
+        this.priority = priority;
+        invalidateAggregates();
+        touch();
+    }
+
+    @NotNull
+    public TaskPriority getHighestPriority(boolean oneLevelOnly) {
+        updateAggregates();
+        return oneLevelOnly ? highestPriorityOneLevel : highestPriority;
+    }
+
+    public long getEstimatedTime() {
+        updateAggregates();
+        return aggregatedEstimatedTime;
+    }
+
+    public long getActualTime() {
+        updateAggregates();
+        return aggregatedActualTime;
+    }
+
+    /**
+     * Returns actual time spent on this task only, without time of sub tasks.
+     *
+     * @return actual time of the task
+     */
+    public long getOwnActualTime() {
+        return actualTime;
+    }
+
+    public void setActualTime(long actualTime) {
+        this.actualTime = actualTime;
+        invalidateAggregates();
+        touch();
+    }
+
+    public void setEstimatedTime(long estimatedTime) {
+        this.estimatedTime = estimatedTime;
+        invalidateAggregates();
+        touch();
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public boolean isCompleted() {
+        updateAggregates();
+        return aggregatedCompleted;
+    }
+
+    public void setHighlighted(boolean highlighted) {
+        this.highlighted = highlighted;
+        touch();
+    }
+
+    public boolean isHighlighted() {
+        return highlighted;
+    }
+
+    @NotNull
+    public TaskHighlightingType getHighlightingType() {
+        return highlightingType;
+    }
+
+    public void setHighlightingType(@NotNull TaskHighlightingType hightlightingType) {
+        this.highlightingType = hightlightingType;
+        touch();
+    }
+
+    public int getCompletionRatio() {
+        updateAggregates();
+        return aggregatedCompletionRatio;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+        invalidateAggregates();
+        touch();
+        stop();
+    }
+
+    public void setCreationTime(long creationTime) {
+        this.creationTime = creationTime;
+        touch();
+    }
+
+    public String toString() {
+        return title;
+    }
+
+    public void add(@NotNull ITask task) {
+        subTasks.add(task);
+        ((Task)task).setParent(this);
+        invalidateAggregates();
+        touch();
+    }
+
+    public void add(int index, @NotNull ITask task) {
+        subTasks.add(index, task);
+        ((Task) task).setParent(this);
+        invalidateAggregates();
+        touch();
+    }
+
+    public int size() {
+        return subTasks.size();
+    }
+
+    public ITask get(int index) {
+        return subTasks.get(index);
+    }
+
+    public void setParent(ITask parent) {
+        this.parent = parent;
+    }
+
+    public ITask getParent() {
+        return parent;
+    }
+
+    public void remove(ITask task) {
+        subTasks.remove(task);
+        invalidateAggregates();
+        touch();
+    }
+
+    public int indexOf(ITask subTask) {
+        assert subTask != null;
+
+        return subTasks.indexOf(subTask);
+    }
+
+    /**
+     * Returns position of the task in its parent (or in the model for top level tasks).
+     * Maintained by {@link TaskList}.
+     *
+     * @return position of the task, -1 if task doesn't belong to any list
+     */
+    int getIndex() {
+        return index;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    public long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    /**
+     * Sets model the task belongs to. Maintained by {@link TaskModel} for tasks at any level.
+     *
+     * @param model model of the task, <code>null</code> if the task has been deleted
+     */
+    void setModel(TaskModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Recalculates roll-up values from sub tasks, if they were invalidated.
+     * Sub tasks recalculate their own values on demand, so each task
+     * is visited at most once per invalidation.
+     */
+    private void updateAggregates() {
+        if (aggregatesValid) {
+            return;
+        }
+
+        //both propagation modes are kept, so switching them needs no recalculation
+        TaskPriority highest = getPriority();
+        TaskPriority highestOneLevel = highest;
+        for (ITask task : subTasks) {
+            highest = highest.max(task.getHighestPriority(false));
+            highestOneLevel = highestOneLevel.max(task.getPriority());
+        }
+        highestPriority = highest;
+        highestPriorityOneLevel = highestOneLevel;
+
+        int totalTasks = subTasks.size();
+        if (totalTasks > 0) {
+            long estimated = 0;
+            long actual = 0;
+            boolean compl = true;
+            int cumCompletionRatio = 0;
+            for (ITask task : subTasks) {
+                estimated += task.getEstimatedTime();
+                actual += task.getActualTime();
+                compl = compl && task.isCompleted();
+                cumCompletionRatio += task.getCompletionRatio();
+            }
+
+            aggregatedEstimatedTime = estimated;
+            aggregatedActualTime = actual;
+            aggregatedCompleted = compl;
+            aggregatedCompletionRatio = cumCompletionRatio / totalTasks;
+        }
+        else {
+            aggregatedEstimatedTime = estimatedTime;
+            aggregatedActualTime = actualTime;
+            aggregatedCompleted = completed;
+            aggregatedCompletionRatio = completed ? 100 : 0;
+        }
+
+        aggregatesValid = true;
+    }
+
+    /**
+     * Drops roll-up values of this task and all its parents. A parent can only
+     * have valid values if all its sub tasks have them, so the walk stops at the
+     * first task which is already invalid.
+     */
+    private void invalidateAggregates() {
+        Task task = this;
+        while (task != null && task.aggregatesValid) {
+            task.aggregatesValid = false;
+            task = task.parent instanceof Task ? (Task) task.parent : null;
+        }
+    }
+
+    /**
+     * Marks this task, all its parents and its model as modified. Stamps of the tasks
+     * are taken from the model, but they never go back, e.g. when a task modified
+     * outside of the model is added to it.
+     */
+    private void touch() {
+        long stamp = model == null ? 0 : model.nextModificationStamp();
+        Task task = this;
+        while (task != null) {
+            task.modificationStamp = Math.max(stamp, task.modificationStamp + 1);
+            task = task.parent instanceof Task ? (Task) task.parent : null;
+        }
+    }
+
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    public void start() {
+        isRunning = true;
+        touch();
+        TaskTimer.startTask(this);
+    }
+
+    public void stop() {
+        isRunning = false;
+        touch();
+        TaskTimer.stopTask(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model.impl;
+
+import org.dubik.tasks.model.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Splits top level tasks of the model into buckets, one bucket per key of the grouping.
+ * Tasks without a key don't belong to any bucket. Every bucket keeps its tasks in the
+ * model order.
+ * <p/>
+ * Buckets are updated from the model change events, so reading them doesn't scan
+ * the model. Events must be passed to the index before anyone reads the buckets
+ * in response to the same event.
+ */
+public class TaskBucketIndex<K> implements ITaskModelChangeListener {
+    private final ITaskModel taskModel;
+    private final ITaskGrouping<K> grouping;
+    private final List<K> keys;
+    private final Map<K, Integer> bucketOfKey = new HashMap<K, Integer>();
+
+    private final List<List<ITask>> buckets;
+    private final Map<ITask, Integer> bucketOfTask = new IdentityHashMap<ITask, Integer>();
+    private boolean valid;
+
+    public TaskBucketIndex(@NotNull ITaskModel taskModel, @NotNull ITaskGrouping<K> grouping) {
+        this.taskModel = taskModel;
+        this.grouping = grouping;
+        this.keys = new ArrayList<K>(grouping.getKeys());
+
+        buckets = new ArrayList<List<ITask>>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            bucketOfKey.put(keys.get(i), i);
+            buckets.add(new ArrayList<ITask>());
+        }
+    }
+
+    public ITaskGrouping<K> getGrouping() {
+        return grouping;
+    }
+
+    public long getModificationStamp() {
+        return taskModel.getModificationStamp();
+    }
+
+    public int getBucketCount() {
+        return buckets.size();
+    }
+
+    public K getKey(int bucket) {
+        return keys.get(bucket);
+    }
+
+    public int size(int bucket) {
+        return getBucket(bucket).size();
+    }
+
+    public ITask get(int bucket, int index) {
+        return getBucket(bucket).get(index);
+    }
+
+    public boolean contains(int bucket, ITask task) {
+        return bucketOf(task) == bucket;
+    }
+
+    /**
+     * Returns bucket of specified task.
+     *
+     * @param task task to look for
+     * @return index of the bucket or -1 if the task is not a top level task or it
+     *         doesn't have a key
+     */
+    public int bucketOf(ITask task) {
+        ensureValid();
+
+        Integer bucket = bucketOfTask.get(task);
+        return bucket == null ? -1 : bucket;
+    }
+
+    /**
+     * Returns position of specified task in the bucket.
+     *
+     * @param bucket index of the bucket
+     * @param task   task to look for
+     * @return position of the task or -1 if task doesn't belong to the bucket
+     */
+    public int indexOf(int bucket, ITask task) {
+        if (bucketOf(task) != bucket) {
+            return -1;
+        }
+
+        List<ITask> members = buckets.get(bucket);
+        int index = lowerBound(members, taskModel.indexOf(task), null, -1);
+        return index < members.size() && members.get(index) == task ? index : -1;
+    }
+
+    public void handleAddTaskEvent(TaskChangeEvent event) {
+        if (!valid) {
+            return;
+        }
+
+        if (event.getParent() == null) {
+            insert(event.getTask());
+        }
+        else {
+            //sub tasks can change values of the top level task, e.g. its completion
+            reclassify(getTopLevelTask(event.getParent()));
+        }
+    }
+
+    public void handlePreAddTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handlePreDeleteTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleDeleteTaskEvent(TaskChangeEvent event) {
+        if (!valid) {
+            return;
+        }
+
+        if (event.getParent() == null) {
+            remove(event.getTask(), event.getIndex());
+        }
+        else {
+            reclassify(getTopLevelTask(event.getParent()));
+        }
+    }
+
+    public void handlePreChangeTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleChangeTaskEvent(TaskChangeEvent event) {
+        if (valid) {
+            reclassify(getTopLevelTask(event.getTask()));
+        }
+    }
+
+    public void handleStructureChangeEvent(TaskChangeEvent event) {
+        //buckets are rebuilt on the next access
+        valid = false;
+    }
+
+    private List<ITask> getBucket(int bucket) {
+        ensureValid();
+        return buckets.get(bucket);
+    }
+
+    private void ensureValid() {
+        if (valid) {
+            return;
+        }
+
+        for (List<ITask> members : buckets) {
+            members.clear();
+        }
+        bucketOfTask.clear();
+
+        for (int i = 0; i < taskModel.size(); i++) {
+            ITask task = taskModel.getTask(i);
+            int bucket = classify(task);
+            if (bucket != -1) {
+                buckets.get(bucket).add(task);
+                bucketOfTask.put(task, bucket);
+            }
+        }
+
+        valid = true;
+    }
+
+    private int classify(ITask task) {
+        Integer bucket = bucketOfKey.get(grouping.getKey(task));
+        return bucket == null ? -1 : bucket;
+    }
+
+    private void insert(ITask task) {
+        int bucket = classify(task);
+        if (bucket != -1) {
+            List<ITask> members = buckets.get(bucket);
+            members.add(lowerBound(members, taskModel.indexOf(task), null, -1), task);
+            bucketOfTask.put(task, bucket);
+        }
+    }
+
+    /**
+     * Removes task from its bucket.
+     *
+     * @param task  task to remove
+     * @param index index the task has in the model, or had if it's already removed from it
+     */
+    private void remove(ITask task, int index) {
+        Integer bucket = bucketOfTask.remove(task);
+        if (bucket == null) {
+            return;
+        }
+
+        List<ITask> members = buckets.get(bucket);
+        int position = lowerBound(members, index, task, index);
+        if (position < members.size() && members.get(position) == task) {
+            members.remove(position);
+        }
+        else {
+            members.remove(task);
+        }
+    }
+
+    private void reclassify(ITask task) {
+        if (taskModel.indexOf(task) == -1) {
+            //task is not in the model (anymore)
+            return;
+        }
+
+        Integer oldBucket = bucketOfTask.get(task);
+        int newBucket = classify(task);
+        if (oldBucket == null || oldBucket != newBucket) {
+            remove(task, taskModel.indexOf(task));
+            insert(task);
+        }
+    }
+
+    /**
+     * Finds position of the first member, whose index in the model isn't less than
+     * specified one.
+     *
+     * @param members      members of a bucket
+     * @param modelIndex   index in the model to look for
+     * @param removedTask  member, which is not in the model anymore, or <code>null</code>
+     * @param removedIndex index the removed member had in the model
+     * @return position in the bucket
+     */
+    private int lowerBound(List<ITask> members, int modelIndex, ITask removedTask, int removedIndex) {
+        int low = 0;
+        int high = members.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            ITask member = members.get(middle);
+            int index = member == removedTask ? removedIndex : taskModel.indexOf(member);
+            if (index < modelIndex) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private ITask getTopLevelTask(ITask task) {
+        ITask topLevelTask = task;
+        while (topLevelTask.getParent() != null) {
+            topLevelTask = topLevelTask.getParent();
+        }
+
+        return topLevelTask;
+    }
+}
@@ -29,6 +29,15 @@ public final class TaskBuilder {
         task = new Task();
     }
 
+    /**
+     * Sets id of the task, e.g. when it's read from a store. Model gives a new id
+     * if it's already taken by another task.
+     */
+    public TaskBuilder setId(long id) {
+        task.setId(id);
+        return this;
+    }
+
     public TaskBuilder setActualTime(long actualTime) {
         task.setActualTime(actualTime);
         return this;
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model.impl;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskModel;
+import org.dubik.tasks.model.ITaskModelChangeListener;
+import org.dubik.tasks.model.TaskChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbers the tasks of the model in pre-order, so sub tasks of a task take the numbers
+ * right after it. A task knows the last number in its subtree, which makes checking
+ * whether a task is under another one two lookups, and listing tasks outside a subtree
+ * one pass over the numbered tasks.
+ * <p/>
+ * Numbers are dropped when tasks are added, moved or deleted, and taken again on the
+ * next query. Changes of the task properties don't touch them.
+ * <p/>
+ * Returned lists are read only views of the numbered tasks, so getting them doesn't
+ * copy anything. They are snapshots, later changes of the model aren't reflected.
+ */
+public class TaskIntervalIndex implements ITaskModelChangeListener {
+    private final ITaskModel taskModel;
+
+    // tasks in pre-order, number of a task is its position here
+    private ITask[] tasks;
+    private int[] subtreeEnds;
+    private Map<ITask, Integer> numbers = new IdentityHashMap<ITask, Integer>();
+    private boolean valid;
+
+    public TaskIntervalIndex(@NotNull ITaskModel taskModel) {
+        this.taskModel = taskModel;
+
+        taskModel.addChangeListener(this);
+    }
+
+    /**
+     * Checks whether a task is a sub task of another one, at any level.
+     *
+     * @param task   task to check
+     * @param parent possible parent
+     * @return <code>true</code> if <code>task</code> is under <code>parent</code>,
+     *         <code>false</code> also if any of them isn't in the model
+     */
+    public boolean isUnder(ITask task, ITask parent) {
+        ensureValid();
+
+        Integer number = numbers.get(task);
+        Integer parentNumber = numbers.get(parent);
+
+        return number != null && parentNumber != null
+                && number > parentNumber && number <= subtreeEnds[parentNumber];
+    }
+
+    /**
+     * Returns all tasks of the model in pre-order.
+     *
+     * @return all tasks with their sub tasks
+     */
+    public List<ITask> getAllTasks() {
+        ensureValid();
+
+        return Collections.unmodifiableList(Arrays.asList(tasks));
+    }
+
+    /**
+     * Returns all tasks of the model in pre-order, except sub tasks of specified task.
+     *
+     * @param task        task which sub tasks are left out
+     * @param includeTask whether the task itself is returned
+     * @return tasks outside of the subtree
+     */
+    public List<ITask> getTasksOutside(ITask task, boolean includeTask) {
+        ensureValid();
+
+        Integer number = numbers.get(task);
+        if (number == null) {
+            return getAllTasks();
+        }
+
+        final ITask[] numberedTasks = tasks;
+        final int from = includeTask ? number + 1 : number;
+        final int skipped = subtreeEnds[number] + 1 - from;
+
+        return new AbstractList<ITask>() {
+            public ITask get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException(Integer.toString(index));
+                }
+
+                return numberedTasks[index < from ? index : index + skipped];
+            }
+
+            public int size() {
+                return numberedTasks.length - skipped;
+            }
+        };
+    }
+
+    private void ensureValid() {
+        if (valid) {
+            return;
+        }
+
+        List<ITask> order = new ArrayList<ITask>();
+        List<Integer> ends = new ArrayList<Integer>();
+        numbers.clear();
+        for (int i = 0; i < taskModel.size(); i++) {
+            number(taskModel.getTask(i), order, ends);
+        }
+
+        tasks = order.toArray(new ITask[order.size()]);
+        subtreeEnds = new int[ends.size()];
+        for (int i = 0; i < subtreeEnds.length; i++) {
+            subtreeEnds[i] = ends.get(i);
+        }
+        valid = true;
+    }
+
+    private void number(ITask task, List<ITask> order, List<Integer> ends) {
+        int number = order.size();
+        numbers.put(task, number);
+        order.add(task);
+        ends.add(number);
+
+        for (int i = 0; i < task.size(); i++) {
+            number(task.get(i), order, ends);
+        }
+
+        ends.set(number, order.size() - 1);
+    }
+
+    public void handleAddTaskEvent(TaskChangeEvent event) {
+        valid = false;
+    }
+
+    public void handlePreAddTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handlePreDeleteTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleDeleteTaskEvent(TaskChangeEvent event) {
+        valid = false;
+    }
+
+    public void handlePreChangeTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleChangeTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleStructureChangeEvent(TaskChangeEvent event) {
+        valid = false;
+    }
+}
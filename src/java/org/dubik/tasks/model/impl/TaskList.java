@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model.impl;
+
+import org.dubik.tasks.model.ITask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Ordered list of tasks. Every task in the list knows its own position, so
+ * looking up an index doesn't require scanning the list. Every change of the top level
+ * list of a model takes a new modification stamp of the model, changes of sub task
+ * lists are stamped by their task.
+ */
+class TaskList implements Iterable<ITask> {
+    private List<ITask> tasks = new ArrayList<ITask>();
+    private final TaskModel model;
+
+    public TaskList() {
+        this(null);
+    }
+
+    public TaskList(TaskModel model) {
+        this.model = model;
+    }
+
+    public void add(@NotNull ITask task) {
+        tasks.add(task);
+        updateIndices(tasks.size() - 1);
+        touch();
+    }
+
+    public void add(int index, @NotNull ITask task) {
+        tasks.add(index, task);
+        updateIndices(index);
+        touch();
+    }
+
+    /**
+     * Removes task from the list.
+     *
+     * @param task task to remove
+     * @return index the task had before removal or -1 if it wasn't in the list
+     */
+    public int remove(ITask task) {
+        int index = indexOf(task);
+        if (index != -1) {
+            tasks.remove(index);
+            updateIndices(index);
+
+            if (task instanceof Task) {
+                ((Task) task).setIndex(-1);
+            }
+            touch();
+        }
+
+        return index;
+    }
+
+    public ITask get(int index) {
+        return tasks.get(index);
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public int indexOf(ITask task) {
+        if (task instanceof Task) {
+            int index = ((Task) task).getIndex();
+            if (index >= 0 && index < tasks.size() && tasks.get(index) == task) {
+                return index;
+            }
+
+            return -1;
+        }
+
+        return tasks.indexOf(task);
+    }
+
+    public Iterator<ITask> iterator() {
+        return Collections.unmodifiableList(tasks).iterator();
+    }
+
+    private void touch() {
+        if (model != null) {
+            model.nextModificationStamp();
+        }
+    }
+
+    private void updateIndices(int fromIndex) {
+        for (int i = fromIndex; i < tasks.size(); i++) {
+            ITask task = tasks.get(i);
+            if (task instanceof Task) {
+                ((Task) task).setIndex(i);
+            }
+        }
+    }
+}
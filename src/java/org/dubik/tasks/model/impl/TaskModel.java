@@ -1,335 +1,603 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.model.impl;
-
-import org.dubik.tasks.model.*;
-import org.jetbrains.annotations.NotNull;
-
-import javax.swing.event.EventListenerList;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * @author Sergiy Dubovik
- */
-public class TaskModel implements ITaskModel {
-
-    private List<ITask> tasks;
-    private EventListenerList listeners;
-
-    public TaskModel() {
-        tasks = new ArrayList<>();
-        listeners = new EventListenerList();
-    }
-
-
-    public ITask addTask(ITask parent, ITask task) {
-        if (parent == null) {
-            tasks.add(task);
-        }
-        else {
-            parent.add(task);
-        }
-
-        fireAddTaskEvent(task);
-
-        return task;
-    }
-
-    public void updateTask(ITask task, ITask parent, String title, String description, TaskPriority priority, long estimatedTime) {
-        assert task != null;
-
-        firePreChangeTaskEvent(task);
-
-        Task mutableTask = (Task) task;
-        mutableTask.setTitle(title);
-        mutableTask.setDescription(description);
-        mutableTask.setPriority(priority);
-        mutableTask.setEstimatedTime(estimatedTime);
-
-        if (task.getParent() != parent) {
-            moveTask(task, parent, -1);
-        }
-
-        fireChangeTaskEvent(task);
-
-    }
-
-    public void moveTask(ITask task, ITask newParent, int index) {
-        Task currentParent = (Task) task.getParent();
-
-        int oldIndex;
-
-        if (currentParent != null) {
-            oldIndex = currentParent.indexOf(task);
-            currentParent.remove(task);
-        }
-        else {
-            oldIndex= tasks.indexOf(task);
-            tasks.remove(task);
-        }
-
-        fireDeleteTaskEvent(task, oldIndex);
-
-        //when moving a task to the end of a node, the index is too big, since
-        //the original node is already removed.
-        if (index > tasks.size()) {
-            index = tasks.size();
-        }
-
-        if (newParent != null) {
-            Task mutableParent = (Task) newParent;
-            if (index > -1) {
-                mutableParent.add(index, task);
-            }
-            else {
-                mutableParent.add(task);
-            }
-        }
-        else {
-            if (index > -1) {
-                tasks.add(index, task);
-            }
-            else {
-                tasks.add(task);
-            }
-        }
-
-
-        Task mutableTask = (Task) task;
-        mutableTask.setParent(newParent);
-
-        fireAddTaskEvent(task);
-
-    }
-
-    public void updateActualTime(ITask task, long actualTime) {
-        assert task != null;
-        assert actualTime >= 0;
-
-        firePreChangeTaskEvent(task);
-
-        Task mutableTask = (Task) task;
-        mutableTask.setActualTime(actualTime);
-
-        fireChangeTaskEvent(task);
-    }
-
-    public void deleteTask(ITask task) {
-        assert task != null;
-
-        int index = -1;
-
-        firePreDeleteTaskEvent(task);
-        ITask parent = task.getParent();
-        if (parent == null) {
-            index = tasks.indexOf(task);
-            tasks.remove(task);
-        }
-        else {
-            Task mutableParent = (Task) parent;
-            index = mutableParent.indexOf(task);
-            mutableParent.remove(task);
-        }
-
-        fireDeleteTaskEvent(task, index);
-    }
-
-    public void completeTask(ITask task) {
-        assert task != null;
-
-        firePreChangeTaskEvent(task);
-
-        Task mutableTask = (Task) task;
-        mutableTask.setCompleted(true);
-
-        fireChangeTaskEvent(task);
-    }
-
-    public void uncompleteTask(ITask task) {
-        assert task != null;
-
-        firePreChangeTaskEvent(task);
-
-        Task mutableTask = (Task) task;
-        mutableTask.setCompleted(false);
-
-        fireChangeTaskEvent(task);
-    }
-
-    public void highlightTask(ITask task) {
-        assert task != null;
-
-        firePreChangeTaskEvent(task);
-
-        Task mutableTask = (Task) task;
-        mutableTask.setHighlighted(true);
-
-        fireChangeTaskEvent(task);
-    }
-
-    public void unhighlightTask(ITask task) {
-        assert task != null;
-
-        firePreChangeTaskEvent(task);
-
-        Task mutableTask = (Task) task;
-        mutableTask.setHighlighted(false);
-
-        fireChangeTaskEvent(task);
-    }
-
-    public boolean canMoveUp(@NotNull ITask task) {
-        ITask parent = task.getParent();
-
-        if (parent == null) {
-            return tasks.indexOf(task) > 0;
-        }
-        else {
-            return parent.indexOf(task) > 0;
-        }
-    }
-
-    public boolean canMoveDown(@NotNull ITask task) {
-        ITask parent = task.getParent();
-
-        if (parent == null) {
-            return tasks.size() - 1 > tasks.indexOf(task);
-        }
-        else if (parent.size() > 1) {
-            return parent.size() - 1 > parent.indexOf(task);
-        }
-
-        return false;
-    }
-
-    public void moveUp(@NotNull ITask task) {
-        Task parent = (Task) task.getParent();
-
-        firePreDeleteTaskEvent(task);
-
-        if (parent == null) {
-            int index = tasks.indexOf(task);
-            if (index > 0) {
-                tasks.remove(index);
-                fireDeleteTaskEvent(task, index);
-                tasks.add(index - 1, task);
-            }
-        }
-        else {
-            int index = parent.indexOf(task);
-            if (index > 0) {
-                parent.remove(task);
-                fireDeleteTaskEvent(task, index);
-                parent.add(index - 1, task);
-            }
-        }
-
-        fireAddTaskEvent(task);
-    }
-
-    public void moveDown(@NotNull ITask task) {
-        Task parent = (Task) task.getParent();
-
-        firePreDeleteTaskEvent(task);
-
-        if (parent == null) {
-            int index = tasks.indexOf(task);
-            if (index < tasks.size() - 1) {
-                tasks.remove(index);
-                fireDeleteTaskEvent(task, index);
-                tasks.add(index + 1, task);
-            }
-        }
-        else {
-            int index = parent.indexOf(task);
-            if (index < parent.size() - 1) {
-                parent.remove(task);
-                fireDeleteTaskEvent(task, index);
-                parent.add(index + 1, task);
-            }
-        }
-
-        fireAddTaskEvent(task);
-    }
-
-    public void setTaskHighlightingType(ITask task, TaskHighlightingType hightlightingType) {
-        firePreChangeTaskEvent(task);
-
-        ((Task) task).setHighlightingType(hightlightingType);
-
-        fireChangeTaskEvent(task);
-    }
-
-    public int size() {
-        return tasks.size();
-    }
-
-    @NotNull
-    public ITask getTask(int index) {
-        return tasks.get(index);
-    }
-
-    public void setTask(int index, @NotNull ITask task) {
-        tasks.add(index, task);
-        fireChangeTaskEvent(task);
-    }
-
-    public void addChangeListener(ITaskModelChangeListener listener) {
-        assert listener != null;
-
-        listeners.add(ITaskModelChangeListener.class, listener);
-    }
-
-    public void removeChangeListener(ITaskModelChangeListener listener) {
-        listeners.remove(ITaskModelChangeListener.class, listener);
-    }
-
-    private void fireAddTaskEvent(ITask task) {
-        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, task.getParent() == null ? tasks.indexOf(task) : task.getParent().indexOf(task) );
-        for (ITaskModelChangeListener listener : listeners.getListeners(ITaskModelChangeListener.class)) {
-            listener.handleAddTaskEvent(event);
-        }
-    }
-
-    private void firePreDeleteTaskEvent(ITask task) {
-        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, task.getParent() == null ? tasks.indexOf(task) : task.getParent().indexOf(task));
-        for (ITaskModelChangeListener listener : listeners.getListeners(ITaskModelChangeListener.class)) {
-            listener.handlePreDeleteTaskEvent(event);
-        }
-    }
-
-    private void fireDeleteTaskEvent(ITask task, int index) {
-        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, index);
-        for (ITaskModelChangeListener listener : listeners.getListeners(ITaskModelChangeListener.class)) {
-            listener.handleDeleteTaskEvent(event);
-        }
-    }
-
-    private void firePreChangeTaskEvent(ITask task) {
-        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, task.getParent() == null ? tasks.indexOf(task) : task.getParent().indexOf(task));
-        for (ITaskModelChangeListener listener : listeners.getListeners(ITaskModelChangeListener.class)) {
-            listener.handlePreChangeTaskEvent(event);
-        }
-    }
-
-    private void fireChangeTaskEvent(ITask task) {
-        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, task.getParent() == null ? tasks.indexOf(task) : task.getParent().indexOf(task));
-        for (ITaskModelChangeListener listener : listeners.getListeners(ITaskModelChangeListener.class)) {
-            listener.handleChangeTaskEvent(event);
-        }
-    }
-}
\ No newline at end of file
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model.impl;
+
+import org.dubik.tasks.model.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.event.EventListenerList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Sergiy Dubovik
+ */
+public class TaskModel implements ITaskModel {
+
+    private TaskList tasks;
+    private EventListenerList listeners;
+
+    // all tasks of the model, at any level, by their ids
+    private Map<Long, ITask> tasksById = new HashMap<Long, ITask>();
+    private long lastId;
+
+    // advanced by every change of the tasks of this model
+    private long modificationStamp;
+
+    // parents changed by the running batch with their sub tasks before the batch, null for the top level
+    private int batchDepth;
+    private Map<ITask, List<ITask>> batchPreviousChildren = new IdentityHashMap<ITask, List<ITask>>();
+    // added, moved or changed sub tasks of the parents
+    private Map<ITask, Set<ITask>> batchChangedTasks = new IdentityHashMap<ITask, Set<ITask>>();
+
+    public TaskModel() {
+        tasks = new TaskList(this);
+        listeners = new EventListenerList();
+    }
+
+
+    public ITask addTask(ITask parent, ITask task) {
+        firePreAddTaskEvent(parent, task);
+
+        if (parent == null) {
+            tasks.add(task);
+        }
+        else {
+            parent.add(task);
+        }
+        registerIds(task);
+
+        fireAddTaskEvent(task);
+
+        return task;
+    }
+
+    public void updateTask(ITask task, ITask parent, String title, String description, TaskPriority priority, long estimatedTime) {
+        assert task != null;
+
+        firePreChangeTaskEvent(task);
+
+        Task mutableTask = (Task) task;
+        mutableTask.setTitle(title);
+        mutableTask.setDescription(description);
+        mutableTask.setPriority(priority);
+        mutableTask.setEstimatedTime(estimatedTime);
+
+        if (task.getParent() != parent) {
+            moveTask(task, parent, -1);
+        }
+
+        fireChangeTaskEvent(task);
+
+    }
+
+    public void moveTask(ITask task, ITask newParent, int index) {
+        Task currentParent = (Task) task.getParent();
+
+        firePreDeleteTaskEvent(task);
+
+        int oldIndex;
+
+        if (currentParent != null) {
+            oldIndex = currentParent.indexOf(task);
+            currentParent.remove(task);
+        }
+        else {
+            oldIndex = tasks.remove(task);
+        }
+
+        fireDeleteTaskEvent(task, oldIndex);
+
+        firePreAddTaskEvent(newParent, task);
+
+        //when moving a task to the end of a node, the index is too big, since
+        //the original node is already removed.
+        int newSize = newParent == null ? tasks.size() : newParent.size();
+        if (index > newSize) {
+            index = newSize;
+        }
+
+        if (newParent != null) {
+            Task mutableParent = (Task) newParent;
+            if (index > -1) {
+                mutableParent.add(index, task);
+            }
+            else {
+                mutableParent.add(task);
+            }
+        }
+        else {
+            if (index > -1) {
+                tasks.add(index, task);
+            }
+            else {
+                tasks.add(task);
+            }
+        }
+
+
+        Task mutableTask = (Task) task;
+        mutableTask.setParent(newParent);
+
+        fireAddTaskEvent(task);
+
+    }
+
+    public void moveTasks(@NotNull final List<ITask> tasks, final ITask newParent, final int index) {
+        runBatch(new Runnable() {
+            public void run() {
+                int taskIndex = index;
+                for (ITask task : tasks) {
+                    moveTask(task, newParent, taskIndex);
+                    if (taskIndex > -1) {
+                        taskIndex++;
+                    }
+                }
+            }
+        });
+    }
+
+    public void updateActualTime(ITask task, long actualTime) {
+        assert task != null;
+        assert actualTime >= 0;
+
+        firePreChangeTaskEvent(task);
+
+        Task mutableTask = (Task) task;
+        mutableTask.setActualTime(actualTime);
+
+        fireChangeTaskEvent(task);
+    }
+
+    public void deleteTask(ITask task) {
+        assert task != null;
+
+        int index = -1;
+
+        firePreDeleteTaskEvent(task);
+        ITask parent = task.getParent();
+        if (parent == null) {
+            index = tasks.remove(task);
+        }
+        else {
+            Task mutableParent = (Task) parent;
+            index = mutableParent.indexOf(task);
+            mutableParent.remove(task);
+        }
+        unregisterIds(task);
+
+        fireDeleteTaskEvent(task, index);
+    }
+
+    public void completeTask(ITask task) {
+        assert task != null;
+
+        firePreChangeTaskEvent(task);
+
+        Task mutableTask = (Task) task;
+        mutableTask.setCompleted(true);
+
+        fireChangeTaskEvent(task);
+    }
+
+    public void uncompleteTask(ITask task) {
+        assert task != null;
+
+        firePreChangeTaskEvent(task);
+
+        Task mutableTask = (Task) task;
+        mutableTask.setCompleted(false);
+
+        fireChangeTaskEvent(task);
+    }
+
+    public void highlightTask(ITask task) {
+        assert task != null;
+
+        firePreChangeTaskEvent(task);
+
+        Task mutableTask = (Task) task;
+        mutableTask.setHighlighted(true);
+
+        fireChangeTaskEvent(task);
+    }
+
+    public void unhighlightTask(ITask task) {
+        assert task != null;
+
+        firePreChangeTaskEvent(task);
+
+        Task mutableTask = (Task) task;
+        mutableTask.setHighlighted(false);
+
+        fireChangeTaskEvent(task);
+    }
+
+    public boolean canMoveUp(@NotNull ITask task) {
+        return indexOf(task) > 0;
+    }
+
+    public boolean canMoveDown(@NotNull ITask task) {
+        ITask parent = task.getParent();
+
+        if (parent == null) {
+            return tasks.size() - 1 > indexOf(task);
+        }
+        else if (parent.size() > 1) {
+            return parent.size() - 1 > parent.indexOf(task);
+        }
+
+        return false;
+    }
+
+    public void moveUp(@NotNull ITask task) {
+        Task parent = (Task) task.getParent();
+
+        firePreDeleteTaskEvent(task);
+
+        if (parent == null) {
+            int index = indexOf(task);
+            if (index > 0) {
+                tasks.remove(task);
+                fireDeleteTaskEvent(task, index);
+                firePreAddTaskEvent(null, task);
+                tasks.add(index - 1, task);
+            }
+        }
+        else {
+            int index = parent.indexOf(task);
+            if (index > 0) {
+                parent.remove(task);
+                fireDeleteTaskEvent(task, index);
+                firePreAddTaskEvent(parent, task);
+                parent.add(index - 1, task);
+            }
+        }
+
+        fireAddTaskEvent(task);
+    }
+
+    public void moveDown(@NotNull ITask task) {
+        Task parent = (Task) task.getParent();
+
+        firePreDeleteTaskEvent(task);
+
+        if (parent == null) {
+            int index = indexOf(task);
+            if (index < tasks.size() - 1) {
+                tasks.remove(task);
+                fireDeleteTaskEvent(task, index);
+                firePreAddTaskEvent(null, task);
+                tasks.add(index + 1, task);
+            }
+        }
+        else {
+            int index = parent.indexOf(task);
+            if (index < parent.size() - 1) {
+                parent.remove(task);
+                fireDeleteTaskEvent(task, index);
+                firePreAddTaskEvent(parent, task);
+                parent.add(index + 1, task);
+            }
+        }
+
+        fireAddTaskEvent(task);
+    }
+
+    public void setTaskHighlightingType(ITask task, TaskHighlightingType hightlightingType) {
+        firePreChangeTaskEvent(task);
+
+        ((Task) task).setHighlightingType(hightlightingType);
+
+        fireChangeTaskEvent(task);
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    @NotNull
+    public ITask getTask(int index) {
+        return tasks.get(index);
+    }
+
+    public int indexOf(@NotNull ITask task) {
+        ITask parent = task.getParent();
+        if (parent == null) {
+            return tasks.indexOf(task);
+        }
+
+        return parent.indexOf(task);
+    }
+
+    public void setTask(int index, @NotNull ITask task) {
+        tasks.add(index, task);
+        registerIds(task);
+        fireChangeTaskEvent(task);
+    }
+
+    public void runBatch(@NotNull Runnable batch) {
+        ++batchDepth;
+        try {
+            batch.run();
+        }
+        finally {
+            if (--batchDepth == 0) {
+                fireBatchStructureChangeEvents();
+            }
+        }
+    }
+
+    /**
+     * Returns the last modification stamp. Tasks of the model and its top level list
+     * take their stamps from the model, so the stamp of the model is simply the last
+     * stamp taken. Tasks outside of the model, e.g. a task being created, don't change it.
+     *
+     * @return modification stamp
+     */
+    public long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    /**
+     * Returns a new stamp, greater than any stamp given by this model before.
+     *
+     * @return modification stamp
+     */
+    long nextModificationStamp() {
+        return ++modificationStamp;
+    }
+
+    @Nullable
+    public ITask findTask(long id) {
+        return tasksById.get(id);
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public void reserveIds(long lastId) {
+        this.lastId = Math.max(this.lastId, lastId);
+    }
+
+    /**
+     * Indexes ids of the added task and its sub tasks. Tasks without an id, e.g. new
+     * tasks or tasks read from an old store, and tasks which id is already taken get
+     * a new one.
+     */
+    private void registerIds(ITask task) {
+        long id = task.getId();
+        ITask registered = id == 0 ? null : tasksById.get(id);
+        if (id == 0 || (registered != null && registered != task)) {
+            id = ++lastId;
+            ((Task) task).setId(id);
+        }
+        else {
+            lastId = Math.max(lastId, id);
+        }
+        tasksById.put(id, task);
+        ((Task) task).setModel(this);
+
+        for (int i = 0; i < task.size(); i++) {
+            registerIds(task.get(i));
+        }
+    }
+
+    private void unregisterIds(ITask task) {
+        if (tasksById.get(task.getId()) == task) {
+            tasksById.remove(task.getId());
+        }
+        ((Task) task).setModel(null);
+
+        for (int i = 0; i < task.size(); i++) {
+            unregisterIds(task.get(i));
+        }
+    }
+
+    public void addChangeListener(ITaskModelChangeListener listener) {
+        assert listener != null;
+
+        listeners.add(ITaskModelChangeListener.class, listener);
+    }
+
+    public void removeChangeListener(ITaskModelChangeListener listener) {
+        listeners.remove(ITaskModelChangeListener.class, listener);
+    }
+
+    /**
+     * Returns listeners in the order they were added, so e.g. an index added before
+     * the tree model is updated before the tree model asks it during the same event.
+     *
+     * @return model change listeners
+     */
+    private ITaskModelChangeListener[] getListeners() {
+        ITaskModelChangeListener[] result = listeners.getListeners(ITaskModelChangeListener.class);
+        Collections.reverse(Arrays.asList(result));
+
+        return result;
+    }
+
+    private void fireAddTaskEvent(ITask task) {
+        if (batchDepth > 0) {
+            recordBatchChange(task.getParent(), task);
+            return;
+        }
+
+        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, indexOf(task));
+        for (ITaskModelChangeListener listener : getListeners()) {
+            listener.handleAddTaskEvent(event);
+        }
+    }
+
+    private void firePreAddTaskEvent(ITask parent, ITask task) {
+        if (batchDepth > 0) {
+            rememberPreviousChildren(parent);
+            return;
+        }
+
+        TaskChangeEvent event = new TaskChangeEvent(parent, task, -1);
+        for (ITaskModelChangeListener listener : getListeners()) {
+            listener.handlePreAddTaskEvent(event);
+        }
+    }
+
+    private void firePreDeleteTaskEvent(ITask task) {
+        if (batchDepth > 0) {
+            rememberPreviousChildren(task.getParent());
+            return;
+        }
+
+        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, indexOf(task));
+        for (ITaskModelChangeListener listener : getListeners()) {
+            listener.handlePreDeleteTaskEvent(event);
+        }
+    }
+
+    private void fireDeleteTaskEvent(ITask task, int index) {
+        if (batchDepth > 0) {
+            recordBatchChange(task.getParent(), null);
+            return;
+        }
+
+        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, index);
+        for (ITaskModelChangeListener listener : getListeners()) {
+            listener.handleDeleteTaskEvent(event);
+        }
+    }
+
+    private void firePreChangeTaskEvent(ITask task) {
+        if (batchDepth > 0) {
+            rememberPreviousChildren(task.getParent());
+            return;
+        }
+
+        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, indexOf(task));
+        for (ITaskModelChangeListener listener : getListeners()) {
+            listener.handlePreChangeTaskEvent(event);
+        }
+    }
+
+    private void fireChangeTaskEvent(ITask task) {
+        if (batchDepth > 0) {
+            recordBatchChange(task.getParent(), task);
+            return;
+        }
+
+        TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, indexOf(task));
+        for (ITaskModelChangeListener listener : getListeners()) {
+            listener.handleChangeTaskEvent(event);
+        }
+    }
+
+    /**
+     * Remembers sub tasks of the parent, when the running batch is about to change
+     * them for the first time.
+     *
+     * @param parent parent to be changed, <code>null</code> for the top level
+     */
+    private void rememberPreviousChildren(ITask parent) {
+        if (!batchPreviousChildren.containsKey(parent)) {
+            List<ITask> children = new ArrayList<ITask>();
+            int size = parent == null ? tasks.size() : parent.size();
+            for (int i = 0; i < size; i++) {
+                children.add(parent == null ? tasks.get(i) : parent.get(i));
+            }
+            batchPreviousChildren.put(parent, children);
+        }
+    }
+
+    private void recordBatchChange(ITask parent, ITask changedTask) {
+        //changes without a pre event, e.g. setTask, have no sub tasks to remember before them
+        rememberPreviousChildren(parent);
+
+        if (changedTask != null) {
+            Set<ITask> changedTasks = batchChangedTasks.get(parent);
+            if (changedTasks == null) {
+                changedTasks = Collections.newSetFromMap(new IdentityHashMap<ITask, Boolean>());
+                batchChangedTasks.put(parent, changedTasks);
+            }
+            changedTasks.add(changedTask);
+        }
+    }
+
+    /**
+     * Notifies listeners about changes made by a batch. One event is fired for every
+     * changed parent, which is still in the model, parents go before their sub tasks.
+     */
+    private void fireBatchStructureChangeEvents() {
+        Map<ITask, List<ITask>> previousChildren = batchPreviousChildren;
+        Map<ITask, Set<ITask>> changedTasks = batchChangedTasks;
+        batchPreviousChildren = new IdentityHashMap<ITask, List<ITask>>();
+        batchChangedTasks = new IdentityHashMap<ITask, Set<ITask>>();
+
+        List<ITask> changedParents = new ArrayList<ITask>();
+        for (ITask parent : previousChildren.keySet()) {
+            if (parent == null || findTask(parent.getId()) == parent) {
+                changedParents.add(parent);
+            }
+        }
+        Collections.sort(changedParents, new Comparator<ITask>() {
+            public int compare(ITask o1, ITask o2) {
+                return getDepth(o1) - getDepth(o2);
+            }
+        });
+
+        List<TaskChangeEvent> events = new ArrayList<TaskChangeEvent>(changedParents.size());
+        for (ITask parent : changedParents) {
+            boolean ancestorChanged = parent != null && previousChildren.containsKey(null);
+            for (ITask p = parent == null ? null : parent.getParent(); p != null && !ancestorChanged; p = p.getParent()) {
+                ancestorChanged = previousChildren.containsKey(p);
+            }
+
+            List<ITask> changed = new ArrayList<ITask>();
+            Set<ITask> tasks = changedTasks.get(parent);
+            if (tasks != null) {
+                for (ITask task : tasks) {
+                    //task could be moved further or deleted later in the batch
+                    if (task.getParent() == parent && findTask(task.getId()) == task) {
+                        changed.add(task);
+                    }
+                }
+            }
+
+            events.add(new TaskChangeEvent(parent, previousChildren.get(parent), changed, ancestorChanged));
+        }
+
+        for (TaskChangeEvent event : events) {
+            for (ITaskModelChangeListener listener : getListeners()) {
+                listener.handleStructureChangeEvent(event);
+            }
+        }
+    }
+
+    private static int getDepth(ITask task) {
+        int depth = 0;
+        for (ITask t = task; t != null; t = t.getParent()) {
+            depth++;
+        }
+
+        return depth;
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.model.impl;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskModel;
+import org.dubik.tasks.model.ITaskModelChangeListener;
+import org.dubik.tasks.model.TaskChangeEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index of words in titles and descriptions of all tasks of the model.
+ * Words are lower cased runs of letters and digits. Chinese, Japanese and Korean text
+ * isn't separated by spaces, so every such character is indexed on its own and together
+ * with the next one, which lets a query find any run of these characters.
+ * <p/>
+ * Index follows the model events: added tasks are indexed with their sub tasks, deleted
+ * ones are dropped, changed ones are indexed again. After a batch only the added, moved
+ * and changed sub tasks of the changed parents are indexed, the deleted ones are dropped.
+ * It must be registered in the model before anything which asks it during the events,
+ * e.g. the tree model with a search filter.
+ */
+public class TaskSearchIndex implements ITaskModelChangeListener {
+    private static final String[] NO_TERMS = new String[0];
+
+    private static final Comparator<Set<ITask>> BY_SIZE = new Comparator<Set<ITask>>() {
+        public int compare(Set<ITask> o1, Set<ITask> o2) {
+            return o1.size() - o2.size();
+        }
+    };
+
+    private final ITaskModel taskModel;
+
+    // sorted, so words starting with a query word are one sub map
+    private final TreeMap<String, Set<ITask>> postings = new TreeMap<String, Set<ITask>>();
+    private final Map<ITask, String[]> indexedTerms = new IdentityHashMap<ITask, String[]>();
+    private boolean valid;
+    // a batch could delete tasks, which are still in the index
+    private boolean purgeNeeded;
+
+    // grows whenever indexed terms or parents change, the last search is reused while it's the same
+    private long version;
+    private long searchVersion = -1;
+    private String searchQuery;
+    private Set<ITask> searchResult;
+
+    public TaskSearchIndex(@NotNull ITaskModel taskModel) {
+        this.taskModel = taskModel;
+
+        taskModel.addChangeListener(this);
+    }
+
+    /**
+     * Returns tasks which title or description contains all words of the query.
+     * Last word of the query also matches words it's the beginning of, so results
+     * can be shown while the query is typed.
+     *
+     * @param query words to look for
+     * @return matching tasks, empty if the query has no words
+     */
+    @NotNull
+    public Set<ITask> search(@NotNull String query) {
+        ensureValid();
+
+        List<String> terms = new ArrayList<String>();
+        tokenize(query, terms, false);
+        if (terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        List<Set<ITask>> matches = new ArrayList<Set<ITask>>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Set<ITask> tasks = i == terms.size() - 1 && !isCjk(term.codePointAt(0))
+                    ? findByPrefix(term) : postings.get(term);
+            if (tasks == null || tasks.isEmpty()) {
+                return Collections.emptySet();
+            }
+            matches.add(tasks);
+        }
+
+        //start from the rarest term, so the result never grows
+        Collections.sort(matches, BY_SIZE);
+        Set<ITask> result = newTaskSet();
+        result.addAll(matches.get(0));
+        for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+            result.retainAll(matches.get(i));
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns tasks found by {@link #search(String)} together with all their parents,
+     * so the tasks can be shown in the tree. Result is kept until the index changes.
+     *
+     * @param query words to look for
+     * @return matching tasks and their parents
+     */
+    @NotNull
+    public Set<ITask> searchWithParents(@NotNull String query) {
+        ensureValid();
+
+        if (searchVersion == version && query.equals(searchQuery)) {
+            return searchResult;
+        }
+
+        Set<ITask> result = newTaskSet();
+        for (ITask task : search(query)) {
+            if (taskModel.findTask(task.getId()) != task) {
+                //deleted by a batch, which hasn't told about its parent yet
+                continue;
+            }
+
+            for (ITask t = task; t != null && result.add(t); t = t.getParent()) {
+                //parents are added until one is already there with its own parents
+            }
+        }
+
+        searchVersion = version;
+        searchQuery = query;
+        searchResult = Collections.unmodifiableSet(result);
+
+        return searchResult;
+    }
+
+    private Set<ITask> findByPrefix(String prefix) {
+        SortedMap<String, Set<ITask>> words = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+        if (words.size() == 1) {
+            return words.values().iterator().next();
+        }
+
+        Set<ITask> tasks = newTaskSet();
+        for (Set<ITask> wordTasks : words.values()) {
+            tasks.addAll(wordTasks);
+        }
+
+        return tasks;
+    }
+
+    private void ensureValid() {
+        if (valid) {
+            if (purgeNeeded) {
+                purgeDeleted();
+            }
+            return;
+        }
+
+        postings.clear();
+        indexedTerms.clear();
+        for (int i = 0; i < taskModel.size(); i++) {
+            indexRecursively(taskModel.getTask(i));
+        }
+
+        valid = true;
+        purgeNeeded = false;
+        version++;
+    }
+
+    private void purgeDeleted() {
+        List<ITask> deleted = new ArrayList<ITask>();
+        for (ITask task : indexedTerms.keySet()) {
+            if (taskModel.findTask(task.getId()) != task) {
+                deleted.add(task);
+            }
+        }
+
+        for (ITask task : deleted) {
+            unindex(task);
+        }
+
+        purgeNeeded = false;
+    }
+
+    private void indexRecursively(ITask task) {
+        index(task);
+        for (int i = 0; i < task.size(); i++) {
+            indexRecursively(task.get(i));
+        }
+    }
+
+    private void unindexRecursively(ITask task) {
+        unindex(task);
+        for (int i = 0; i < task.size(); i++) {
+            unindexRecursively(task.get(i));
+        }
+    }
+
+    private void index(ITask task) {
+        String[] terms = getTerms(task);
+        if (Arrays.equals(terms, indexedTerms.get(task))) {
+            return;
+        }
+
+        unindex(task);
+        for (String term : terms) {
+            Set<ITask> tasks = postings.get(term);
+            if (tasks == null) {
+                //most words are in a few tasks only
+                tasks = Collections.newSetFromMap(new IdentityHashMap<ITask, Boolean>(2));
+                postings.put(term, tasks);
+            }
+            tasks.add(task);
+        }
+
+        indexedTerms.put(task, terms);
+        version++;
+    }
+
+    private void unindex(ITask task) {
+        String[] terms = indexedTerms.remove(task);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Set<ITask> tasks = postings.get(term);
+            if (tasks != null) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        version++;
+    }
+
+    private static String[] getTerms(ITask task) {
+        Set<String> terms = new LinkedHashSet<String>();
+        tokenize(task.getTitle(), terms, true);
+        tokenize(task.getDescription(), terms, true);
+
+        return terms.isEmpty() ? NO_TERMS : terms.toArray(new String[terms.size()]);
+    }
+
+    /**
+     * Splits text into lower cased words. Runs of Chinese, Japanese or Korean characters
+     * are split into pairs of neighbour characters. Single characters are added for the
+     * index, so one character queries find them, and for one character runs of a query.
+     *
+     * @param text       text to split, can be <code>null</code>
+     * @param terms      collection to add the words to
+     * @param allSingles whether single characters of longer runs are added too
+     */
+    static void tokenize(String text, Collection<String> terms, boolean allSingles) {
+        if (text == null) {
+            return;
+        }
+
+        StringBuilder word = new StringBuilder();
+        int runStart = -1;
+        int i = 0;
+        while (i <= text.length()) {
+            int ch = i < text.length() ? text.codePointAt(i) : ' ';
+            boolean cjk = isCjk(ch);
+
+            if (cjk) {
+                if (runStart == -1) {
+                    runStart = i;
+                }
+            }
+            else if (runStart != -1) {
+                addRun(text, runStart, i, terms, allSingles);
+                runStart = -1;
+            }
+
+            if (!cjk && Character.isLetterOrDigit(ch)) {
+                word.appendCodePoint(Character.toLowerCase(ch));
+            }
+            else if (word.length() > 0) {
+                terms.add(word.toString());
+                word.setLength(0);
+            }
+
+            i += Character.charCount(ch);
+        }
+    }
+
+    private static void addRun(String text, int start, int end, Collection<String> terms, boolean allSingles) {
+        int next = text.offsetByCodePoints(start, 1);
+        if (next == end || allSingles) {
+            for (int i = start; i < end; i = text.offsetByCodePoints(i, 1)) {
+                terms.add(text.substring(i, text.offsetByCodePoints(i, 1)));
+            }
+        }
+
+        for (int i = start; next < end; ) {
+            int afterNext = text.offsetByCodePoints(next, 1);
+            terms.add(text.substring(i, afterNext));
+            i = next;
+            next = afterNext;
+        }
+    }
+
+    private static boolean isCjk(int ch) {
+        //all the blocks are above, skip the look up for latin text
+        if (ch < 0x3040) {
+            return false;
+        }
+
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(ch);
+
+        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_B
+                || block == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS
+                || block == Character.UnicodeBlock.HIRAGANA
+                || block == Character.UnicodeBlock.KATAKANA
+                || block == Character.UnicodeBlock.HANGUL_SYLLABLES;
+    }
+
+    private static Set<ITask> newTaskSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<ITask, Boolean>());
+    }
+
+    public void handleAddTaskEvent(TaskChangeEvent event) {
+        if (valid) {
+            indexRecursively(event.getTask());
+        }
+    }
+
+    public void handlePreAddTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handlePreDeleteTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleDeleteTaskEvent(TaskChangeEvent event) {
+        if (valid) {
+            unindexRecursively(event.getTask());
+        }
+    }
+
+    public void handlePreChangeTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleChangeTaskEvent(TaskChangeEvent event) {
+        if (valid) {
+            index(event.getTask());
+        }
+    }
+
+    public void handleStructureChangeEvent(TaskChangeEvent event) {
+        if (!valid) {
+            return;
+        }
+
+        for (ITask task : event.getPreviousChildren()) {
+            if (taskModel.findTask(task.getId()) != task) {
+                unindexRecursively(task);
+                //sub tasks deleted from it before are not under it anymore
+                purgeNeeded = true;
+            }
+        }
+
+        for (ITask task : event.getChangedTasks()) {
+            if (indexedTerms.containsKey(task)) {
+                index(task);
+            }
+            else {
+                indexRecursively(task);
+            }
+        }
+
+        //parents of tasks could be changed without changing any words
+        version++;
+    }
+}
@@ -26,12 +26,14 @@ public class TaskSettings extends PropertyChangeSupport  {
     private boolean enableTasksScope;
     private boolean propagatePriority;
     private boolean oneLevelOnly;
+    private boolean storeBinarySnapshot;
 
     private static final String TASKS_SETTINGS_ENABLE_ACTUAL_TIME = "enableActualTime";
     private static final String TASKS_SETTINGS_ASK_ACTUAL = "askActualWhenCompleteTask";
     private static final String TASKS_SETTINGS_ENABLE_TASKS_SCOPE = "enableTasksScope";
     private static final String TASKS_SETTINGS_PROPAGATE_PRIORITY = "propagatePriority";
     private static final String TASKS_SETTINGS_ONE_LEVEL_ONLY = "oneLevelOnly";
+    private static final String TASKS_SETTINGS_STORE_BINARY_SNAPSHOT = "storeBinarySnapshot";
 
     public TaskSettings() {
         super(TaskSettings.class);
@@ -90,4 +92,14 @@ public class TaskSettings extends PropertyChangeSupport  {
     public boolean isPriorityPropagatedOneLevelOnly() {
         return oneLevelOnly;
     }
+
+    public void setStoreBinarySnapshot(boolean storeBinarySnapshot) {
+        boolean oldValue = this.storeBinarySnapshot;
+        this.storeBinarySnapshot = storeBinarySnapshot;
+        firePropertyChange(TASKS_SETTINGS_STORE_BINARY_SNAPSHOT, oldValue, storeBinarySnapshot);
+    }
+
+    public boolean isStoreBinarySnapshot() {
+        return storeBinarySnapshot;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.actions;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import org.dubik.tasks.model.ITaskGrouping;
+import org.dubik.tasks.ui.tree.TaskTreeController;
+
+/**
+ * Toggles grouping of the tasks in the tree. Only one grouping can be active,
+ * selecting a grouping replaces the current one.
+ */
+abstract public class BaseGroupByAction extends BaseToggleTaskAction {
+    /**
+     * Creates grouping, which this action turns on.
+     *
+     * @return new grouping
+     */
+    protected abstract ITaskGrouping<?> createGrouping();
+
+    /**
+     * Checks whether specified grouping is the one of this action.
+     *
+     * @param grouping current grouping of the tree, may be <code>null</code>
+     * @return <code>true</code> if tasks are grouped by this action
+     */
+    protected abstract boolean isGroupedBy(ITaskGrouping<?> grouping);
+
+    @Override
+    public boolean isSelected(AnActionEvent e) {
+        TaskTreeController taskTreeController = getTreeController(e);
+        return taskTreeController != null && isGroupedBy(taskTreeController.getGrouping());
+    }
+
+    @Override
+    public void setSelected(AnActionEvent e, boolean state) {
+        TaskTreeController taskTreeController = getTreeController(getProject(e));
+        if (taskTreeController != null) {
+            taskTreeController.groupBy(state ? createGrouping() : null);
+        }
+    }
+}
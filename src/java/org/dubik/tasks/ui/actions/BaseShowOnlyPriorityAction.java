@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.actions;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import org.dubik.tasks.model.TaskPriority;
+import org.dubik.tasks.ui.tree.TaskTreeController;
+
+/**
+ * Toggles showing only tasks with one priority. Only one priority can be shown,
+ * selecting a priority replaces the current one.
+ */
+abstract public class BaseShowOnlyPriorityAction extends BaseToggleTaskAction {
+    /**
+     * Returns priority of the tasks, which this action shows.
+     *
+     * @return shown priority
+     */
+    protected abstract TaskPriority getPriority();
+
+    @Override
+    public boolean isSelected(AnActionEvent e) {
+        TaskTreeController taskTreeController = getTreeController(e);
+        return taskTreeController != null && taskTreeController.getShownPriority() == getPriority();
+    }
+
+    @Override
+    public void setSelected(AnActionEvent e, boolean state) {
+        TaskTreeController taskTreeController = getTreeController(getProject(e));
+        if (taskTreeController != null) {
+            taskTreeController.showOnlyPriority(state ? getPriority() : null);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.actions;
+
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.dubik.tasks.TaskController;
+import org.dubik.tasks.TasksBundle;
+import org.dubik.tasks.ui.filters.SearchFilter;
+import org.dubik.tasks.ui.tree.TaskTreeController;
+
+/**
+ * Asks for words and shows only tasks containing them, until the action is unselected.
+ */
+public class SearchTasksAction extends BaseToggleTaskAction {
+
+    @Override
+    public boolean isSelected(AnActionEvent e) {
+        TaskTreeController taskTreeController = getTreeController(e);
+        return taskTreeController != null && taskTreeController.getSearchFilter() != null;
+    }
+
+    @Override
+    public void setSelected(AnActionEvent e, boolean state) {
+        TaskTreeController taskTreeController = getTreeController(e);
+        if (!state) {
+            taskTreeController.showSearchResults(null);
+            return;
+        }
+
+        Project project = getProject(e);
+        String query = Messages.showInputDialog(project,
+                TasksBundle.message("search.message"), TasksBundle.message("search.title"),
+                Messages.getQuestionIcon());
+
+        if (query != null && query.trim().length() != 0) {
+            TaskController controller = getTaskController(project);
+            taskTreeController.showSearchResults(new SearchFilter(controller.getSearchIndex(), query.trim()));
+            taskTreeController.expandAll();
+        }
+    }
+}
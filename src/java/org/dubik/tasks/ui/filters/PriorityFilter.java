@@ -1,34 +1,47 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.ui.filters;
-
-import org.dubik.tasks.model.*;
-import org.jetbrains.annotations.NotNull;
-
-/**
- * @author Sergiy Dubovik
- */
-public class PriorityFilter implements ITaskFilter {
-    private TaskPriority priority;
-
-    public PriorityFilter(TaskPriority priority) {
-        this.priority = priority;
-    }
-
-    public boolean accept(@NotNull ITask task) {
-        return task.getPriority() == priority;
-    }
-}
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.filters;
+
+import org.dubik.tasks.model.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Accepts tasks of the priority and their parents, so the tasks stay reachable
+ * in the tree.
+ *
+ * @author Sergiy Dubovik
+ */
+public class PriorityFilter implements ITaskFilter {
+    private TaskPriority priority;
+
+    public PriorityFilter(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public boolean accept(@NotNull ITask task) {
+        if (task.getPriority() == priority) {
+            return true;
+        }
+
+        for (int i = 0; i < task.size(); i++) {
+            if (accept(task.get(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.filters;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskFilter;
+import org.dubik.tasks.model.impl.TaskSearchIndex;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Accepts tasks found by a search index and their parents, so the found tasks
+ * stay reachable in the tree. Tasks are looked up in the index on every check,
+ * so the filter follows changes of the model.
+ */
+public class SearchFilter implements ITaskFilter {
+    private TaskSearchIndex searchIndex;
+    private String query;
+
+    public SearchFilter(@NotNull TaskSearchIndex searchIndex, @NotNull String query) {
+        this.searchIndex = searchIndex;
+        this.query = query;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public boolean accept(@NotNull ITask task) {
+        return searchIndex.searchWithParents(query).contains(task);
+    }
+}
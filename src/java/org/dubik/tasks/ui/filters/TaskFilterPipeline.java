@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.filters;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskFilter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Combines several task filters into one. A task is accepted if all filters accept it,
+ * filters are checked in the given order and the first rejecting filter stops the check.
+ * <p/>
+ * Result is remembered per task together with its modification stamp. Stamp of a task
+ * changes also with its sub tasks, so a remembered result is valid until the task or
+ * any of its sub tasks change, and checking an unchanged task again is a map lookup.
+ * Filters must depend only on the task and its sub tasks.
+ */
+public class TaskFilterPipeline implements ITaskFilter {
+    private final ITaskFilter[] filters;
+    private final Map<ITask, FilterResult> results = new WeakHashMap<ITask, FilterResult>();
+
+    public TaskFilterPipeline(@NotNull ITaskFilter... filters) {
+        this.filters = filters.clone();
+    }
+
+    public boolean accept(@NotNull ITask task) {
+        long stamp = task.getModificationStamp();
+        FilterResult result = results.get(task);
+        if (result != null && result.stamp == stamp) {
+            return result.accepted;
+        }
+
+        if (result == null) {
+            result = new FilterResult();
+            results.put(task, result);
+        }
+
+        result.stamp = stamp;
+        result.accepted = acceptByFilters(task);
+
+        return result.accepted;
+    }
+
+    private boolean acceptByFilters(ITask task) {
+        for (ITaskFilter filter : filters) {
+            if (!filter.accept(task)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class FilterResult {
+        private long stamp;
+        private boolean accepted;
+    }
+}
@@ -1,56 +1,56 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.ui.forms;
-
-import com.intellij.openapi.project.Project;
-import com.intellij.openapi.ui.DialogWrapper;
-import org.dubik.tasks.model.ITask;
-import org.jetbrains.annotations.Nullable;
-
-import javax.swing.*;
-
-/**
- * @author Sergiy Dubovik
- */
-public class ActualTimeForm extends DialogWrapper {
-    private static long ONE_MINUTE = 60;
-
-    private JSpinner actualTimeSpinner;
-    private JPanel container;
-    private JLabel taskDescriptionLabel;
-
-    public ActualTimeForm(Project project, ITask task) {
-        super(project, false);
-        taskDescriptionLabel.setText( task.getTitle());
-
-        SpinnerModel minutesSpinnerModel = new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 15);
-        actualTimeSpinner.setModel(minutesSpinnerModel);
-        actualTimeSpinner.setValue((int) (task.getActualTime() / ONE_MINUTE));
-
-        init();
-    }
-
-    @Nullable
-    protected JComponent createCenterPanel() {
-        return container;
-    }
-
-    public long getActualTime() {
-        int minutes = (Integer) actualTimeSpinner.getValue();
-        return minutes * ONE_MINUTE;
-    }
-
-}
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.forms;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import org.dubik.tasks.model.ITask;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+
+/**
+ * @author Sergiy Dubovik
+ */
+public class ActualTimeForm extends DialogWrapper {
+    private static long ONE_MINUTE = 60;
+
+    private JSpinner actualTimeSpinner;
+    private JPanel container;
+    private JLabel taskDescriptionLabel;
+
+    public ActualTimeForm(Project project, ITask task) {
+        super(project, false);
+        taskDescriptionLabel.setText( task.getTitle());
+
+        SpinnerModel minutesSpinnerModel = new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 15);
+        actualTimeSpinner.setModel(minutesSpinnerModel);
+        actualTimeSpinner.setValue((int) (task.getActualTime() / ONE_MINUTE));
+
+        init();
+    }
+
+    @Nullable
+    protected JComponent createCenterPanel() {
+        return container;
+    }
+
+    public long getActualTime() {
+        int minutes = (Integer) actualTimeSpinner.getValue();
+        return minutes * ONE_MINUTE;
+    }
+
+}
@@ -1,220 +1,353 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.ui.forms;
-
-import com.intellij.openapi.project.Project;
-import com.intellij.openapi.ui.DialogWrapper;
-import com.intellij.openapi.ui.ValidationInfo;
-import com.intellij.ui.ColoredListCellRenderer;
-import com.intellij.ui.SimpleTextAttributes;
-import org.dubik.tasks.settings.TaskSettings;
-import org.dubik.tasks.TasksBundle;
-import org.dubik.tasks.model.ITask;
-import org.dubik.tasks.model.TaskPriority;
-import org.dubik.tasks.utils.UIUtil;
-import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
-
-import javax.swing.*;
-import java.util.List;
-
-/**
- * @author Sergiy Dubovik
- */
-public class TaskForm extends DialogWrapper {
-    public static final int EXIT_ADD_TO_ROOT = NEXT_USER_EXIT_CODE;
-    public static final int EXIT_ADD = NEXT_USER_EXIT_CODE + 1;
-    private static int ONE_MINUTE = 60;
-    private JPanel container;
-    private JTextField titleTextField;
-    private JComboBox priorityComboBox;
-    private JSpinner minutesSpinner;
-    private JComboBox parentTasksComboBox;
-    private JSpinner actualMinutesSpinner;
-    private JLabel actualTimeLabel;
-    private JLabel actualMinutesLabel;
-    private JTextPane description;
-    private ITask selectedParentTask;
-    private boolean forEdit;
-
-    public TaskForm(Project project, TaskSettings settings, boolean forEdit) {
-        super(project);
-        this.forEdit = forEdit;
-
-        setTitle(forEdit ? TasksBundle.message("form.edit-task.title") : TasksBundle.message("form.new-task.title"));
-
-        SpinnerModel minutesSpinnerModel = new SpinnerNumberModel(0, 0, 9000, 15);
-        minutesSpinner.setModel(minutesSpinnerModel);
-
-        TaskPriority[] priorities = TaskPriority.values();
-        priorityComboBox.setRenderer(new PriorityComboBoxRenderer());
-
-        for (TaskPriority priority : priorities) {
-            priorityComboBox.addItem(priority);
-        }
-        priorityComboBox.setSelectedItem(TaskPriority.Normal);
-
-        parentTasksComboBox.setRenderer(new TaskComboBoxRenderer());
-
-        SpinnerModel actualMinutesSpinnerModel = new SpinnerNumberModel(0, 0, 9000, 15);
-        actualMinutesSpinner.setModel(actualMinutesSpinnerModel);
-
-        setActualsVisible(settings.isEnableActualTime());
-        init();
-    }
-
-    @Nullable
-    protected JComponent createCenterPanel() {
-        return container;
-    }
-
-    @NotNull
-    protected Action[] createActions() {
-        if (forEdit) {
-            return new Action[]{getOKAction(), getCancelAction()};
-        }
-        else {
-            DialogWrapperExitAction addToRootAction = new DialogWrapperExitAction(TasksBundle.message("actions.add-to-root"), EXIT_ADD_TO_ROOT);
-            DialogWrapperExitAction addAction = new DialogWrapperExitAction(TasksBundle.message("actions.add"), EXIT_ADD);
-            addAction.putValue(DEFAULT_ACTION, Boolean.TRUE);
-
-            return new Action[]{
-                    addToRootAction,
-                    addAction,
-                    getCancelAction()
-            };
-        }
-    }
-
-    public JComponent getPreferredFocusedComponent() {
-        return titleTextField;
-    }
-
-    public String getTaskTitle() {
-        return titleTextField.getText();
-    }
-
-    public void setTaskTitle(String title) {
-        titleTextField.setText(title);
-    }
-
-    public String getTaskDescription() {
-        return description.getText();
-    }
-
-    public void setTaskDescription(String description) {
-        this.description.setText(description);
-    }
-
-    public long getEstimatedTime() {
-        int minutes = (Integer) minutesSpinner.getValue();
-
-        return minutes * ONE_MINUTE;
-    }
-
-    public void setEstimatedTime(long time) {
-        minutesSpinner.setValue((int) (time / ONE_MINUTE));
-    }
-
-    public long getActualTime() {
-        int minutes = (Integer) actualMinutesSpinner.getValue();
-
-        return minutes * ONE_MINUTE;
-    }
-
-    public void setActualTime(long actualTime) {
-        actualMinutesSpinner.setValue((int) (actualTime / ONE_MINUTE));
-    }
-
-    public TaskPriority getPriority() {
-        return (TaskPriority) priorityComboBox.getSelectedItem();
-    }
-
-    public void setPriority(TaskPriority priority) {
-        priorityComboBox.setSelectedItem(priority);
-    }
-
-    public void setParentTasksList(ITask rootTask, List<ITask> parentTaskList) {
-        parentTasksComboBox.addItem(rootTask);
-
-        for (ITask task : parentTaskList) {
-            parentTasksComboBox.addItem(task);
-        }
-
-        parentTasksComboBox.setSelectedItem(selectedParentTask);
-    }
-
-    public ITask getSelectedParent() {
-        Object selectedParent = parentTasksComboBox.getSelectedItem();
-        if (selectedParent instanceof ITask) {
-            return (ITask) selectedParent;
-        }
-
-        return null;
-    }
-
-    public void setSelectedParentTask(ITask selectedTask) {
-        selectedParentTask = selectedTask;
-    }
-
-    public void setActualsVisible(boolean visible) {
-        actualMinutesLabel.setVisible(visible);
-        actualTimeLabel.setVisible(visible);
-        actualMinutesSpinner.setVisible(visible);
-    }
-
-    @Nullable
-    @Override
-    protected ValidationInfo doValidate() {
-        if (titleTextField.getText().trim().isEmpty()) {
-            return new ValidationInfo(TasksBundle.message("error.no-title", titleTextField));
-        }
-
-        return null;
-    }
-
-    /**
-     * Combo box priority cell renderer.
-     */
-    class PriorityComboBoxRenderer extends ColoredListCellRenderer {
-        public PriorityComboBoxRenderer() {
-            setOpaque(true);
-        }
-
-        @Override
-        protected void customizeCellRenderer(JList list, Object value, int index, boolean selected, boolean hasFocus) {
-            TaskPriority priority = (TaskPriority) value;
-            setIcon(UIUtil.findIcon(priority));
-            append(priority.toString(), new SimpleTextAttributes(SimpleTextAttributes.STYLE_PLAIN, getForeground()));
-        }
-    }
-
-    /**
-     * Combo box tasks cell renderer.
-     */
-    class TaskComboBoxRenderer extends ColoredListCellRenderer {
-        public TaskComboBoxRenderer() {
-            setOpaque(true);
-        }
-
-        @Override
-        protected void customizeCellRenderer(JList list, Object value, int index, boolean selected, boolean hasFocus) {
-            ITask task = (ITask) value;
-            append(task.getTitle(), new SimpleTextAttributes(SimpleTextAttributes.STYLE_PLAIN, getForeground()));
-            setIcon(UIUtil.createIcon(task));
-        }
-    }
-}
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.forms;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
+import org.dubik.tasks.settings.TaskSettings;
+import org.dubik.tasks.TasksBundle;
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.TaskPriority;
+import org.dubik.tasks.model.impl.TaskSearchIndex;
+import org.dubik.tasks.utils.UIUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.plaf.basic.ComboPopup;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author Sergiy Dubovik
+ */
+public class TaskForm extends DialogWrapper {
+    public static final int EXIT_ADD_TO_ROOT = NEXT_USER_EXIT_CODE;
+    public static final int EXIT_ADD = NEXT_USER_EXIT_CODE + 1;
+    private static int ONE_MINUTE = 60;
+    private JPanel container;
+    private JTextField titleTextField;
+    private JComboBox priorityComboBox;
+    private JSpinner minutesSpinner;
+    private JComboBox parentTasksComboBox;
+    private JTextField parentFilterField;
+    private JSpinner actualMinutesSpinner;
+    private JLabel actualTimeLabel;
+    private JLabel actualMinutesLabel;
+    private JTextPane description;
+    private ITask selectedParentTask;
+    private TaskSearchIndex searchIndex;
+    private boolean forEdit;
+
+    public TaskForm(Project project, TaskSettings settings, boolean forEdit) {
+        super(project);
+        this.forEdit = forEdit;
+
+        setTitle(forEdit ? TasksBundle.message("form.edit-task.title") : TasksBundle.message("form.new-task.title"));
+
+        SpinnerModel minutesSpinnerModel = new SpinnerNumberModel(0, 0, 9000, 15);
+        minutesSpinner.setModel(minutesSpinnerModel);
+
+        TaskPriority[] priorities = TaskPriority.values();
+        priorityComboBox.setRenderer(new PriorityComboBoxRenderer());
+
+        for (TaskPriority priority : priorities) {
+            priorityComboBox.addItem(priority);
+        }
+        priorityComboBox.setSelectedItem(TaskPriority.Normal);
+
+        parentTasksComboBox.setRenderer(new TaskComboBoxRenderer());
+        parentFilterField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                filterParentTasks();
+            }
+
+            public void removeUpdate(DocumentEvent e) {
+                filterParentTasks();
+            }
+
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+        parentFilterField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                //matching tasks are chosen without leaving the filter
+                int step = e.getKeyCode() == KeyEvent.VK_DOWN ? 1 : e.getKeyCode() == KeyEvent.VK_UP ? -1 : 0;
+                int index = parentTasksComboBox.getSelectedIndex() + step;
+                if (step != 0 && index >= 0 && index < parentTasksComboBox.getItemCount()) {
+                    parentTasksComboBox.setSelectedIndex(index);
+                    e.consume();
+                }
+            }
+        });
+
+        SpinnerModel actualMinutesSpinnerModel = new SpinnerNumberModel(0, 0, 9000, 15);
+        actualMinutesSpinner.setModel(actualMinutesSpinnerModel);
+
+        setActualsVisible(settings.isEnableActualTime());
+        init();
+    }
+
+    @Nullable
+    protected JComponent createCenterPanel() {
+        return container;
+    }
+
+    @NotNull
+    protected Action[] createActions() {
+        if (forEdit) {
+            return new Action[]{getOKAction(), getCancelAction()};
+        }
+        else {
+            DialogWrapperExitAction addToRootAction = new DialogWrapperExitAction(TasksBundle.message("actions.add-to-root"), EXIT_ADD_TO_ROOT);
+            DialogWrapperExitAction addAction = new DialogWrapperExitAction(TasksBundle.message("actions.add"), EXIT_ADD);
+            addAction.putValue(DEFAULT_ACTION, Boolean.TRUE);
+
+            return new Action[]{
+                    addToRootAction,
+                    addAction,
+                    getCancelAction()
+            };
+        }
+    }
+
+    public JComponent getPreferredFocusedComponent() {
+        return titleTextField;
+    }
+
+    public String getTaskTitle() {
+        return titleTextField.getText();
+    }
+
+    public void setTaskTitle(String title) {
+        titleTextField.setText(title);
+    }
+
+    public String getTaskDescription() {
+        return description.getText();
+    }
+
+    public void setTaskDescription(String description) {
+        this.description.setText(description);
+    }
+
+    public long getEstimatedTime() {
+        int minutes = (Integer) minutesSpinner.getValue();
+
+        return minutes * ONE_MINUTE;
+    }
+
+    public void setEstimatedTime(long time) {
+        minutesSpinner.setValue((int) (time / ONE_MINUTE));
+    }
+
+    public long getActualTime() {
+        int minutes = (Integer) actualMinutesSpinner.getValue();
+
+        return minutes * ONE_MINUTE;
+    }
+
+    public void setActualTime(long actualTime) {
+        actualMinutesSpinner.setValue((int) (actualTime / ONE_MINUTE));
+    }
+
+    public TaskPriority getPriority() {
+        return (TaskPriority) priorityComboBox.getSelectedItem();
+    }
+
+    public void setPriority(TaskPriority priority) {
+        priorityComboBox.setSelectedItem(priority);
+    }
+
+    /**
+     * Sets tasks which can be chosen as a parent. Combo box reads the list only when
+     * it shows the tasks, rows are measured on the root task and the parent is selected
+     * in the model directly, so the list isn't copied or walked when the form is opened.
+     * Words typed into the filter field are looked up in the search index and only
+     * matching tasks are listed.
+     *
+     * @param rootTask       task which stands for no parent
+     * @param parentTaskList possible parents
+     * @param searchIndex    index to look the typed words up, <code>null</code> hides the filter
+     */
+    public void setParentTasksList(ITask rootTask, List<ITask> parentTaskList, @Nullable TaskSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+        parentFilterField.setText("");
+        parentFilterField.setVisible(searchIndex != null);
+
+        ParentTasksComboBoxModel model = new ParentTasksComboBoxModel(rootTask, parentTaskList);
+        model.setSelectedItem(selectedParentTask);
+
+        parentTasksComboBox.setPrototypeDisplayValue(rootTask);
+        parentTasksComboBox.setModel(model);
+
+        Object popup = parentTasksComboBox.getUI().getAccessibleChild(parentTasksComboBox, 0);
+        if (popup instanceof ComboPopup) {
+            ((ComboPopup) popup).getList().setPrototypeCellValue(rootTask);
+        }
+    }
+
+    private void filterParentTasks() {
+        if (searchIndex == null || !(parentTasksComboBox.getModel() instanceof ParentTasksComboBoxModel)) {
+            return;
+        }
+
+        String text = parentFilterField.getText().trim();
+        ParentTasksComboBoxModel model = (ParentTasksComboBoxModel) parentTasksComboBox.getModel();
+        model.setMatchingTasks(text.length() == 0 ? null : searchIndex.search(text));
+
+        if (parentFilterField.isShowing() && !parentTasksComboBox.isPopupVisible()) {
+            parentTasksComboBox.showPopup();
+        }
+    }
+
+    public ITask getSelectedParent() {
+        Object selectedParent = parentTasksComboBox.getSelectedItem();
+        if (selectedParent instanceof ITask) {
+            return (ITask) selectedParent;
+        }
+
+        return null;
+    }
+
+    public void setSelectedParentTask(ITask selectedTask) {
+        selectedParentTask = selectedTask;
+    }
+
+    public void setActualsVisible(boolean visible) {
+        actualMinutesLabel.setVisible(visible);
+        actualTimeLabel.setVisible(visible);
+        actualMinutesSpinner.setVisible(visible);
+    }
+
+    @Nullable
+    @Override
+    protected ValidationInfo doValidate() {
+        if (titleTextField.getText().trim().isEmpty()) {
+            return new ValidationInfo(TasksBundle.message("error.no-title", titleTextField));
+        }
+
+        return null;
+    }
+
+    /**
+     * Combo box model of the possible parents, root task goes first. Tasks can be limited
+     * to the ones found by a search, they keep the order of the possible parents.
+     */
+    static class ParentTasksComboBoxModel extends AbstractListModel implements ComboBoxModel {
+        private ITask rootTask;
+        private List<ITask> tasks;
+        private List<ITask> shownTasks;
+        private Object selectedItem;
+
+        public ParentTasksComboBoxModel(ITask rootTask, List<ITask> tasks) {
+            this.rootTask = rootTask;
+            this.tasks = tasks;
+            this.shownTasks = tasks;
+            this.selectedItem = rootTask;
+        }
+
+        /**
+         * Lists only possible parents, which are among specified tasks.
+         *
+         * @param matchingTasks found tasks, <code>null</code> to list all possible parents
+         */
+        public void setMatchingTasks(@Nullable Set<ITask> matchingTasks) {
+            int oldSize = getSize();
+            if (matchingTasks == null) {
+                shownTasks = tasks;
+            }
+            else {
+                //a set look up per possible parent, the titles aren't compared
+                shownTasks = new ArrayList<ITask>(Math.min(matchingTasks.size(), tasks.size()));
+                for (ITask task : tasks) {
+                    if (matchingTasks.contains(task)) {
+                        shownTasks.add(task);
+                    }
+                }
+            }
+
+            int newSize = getSize();
+            if (oldSize > newSize) {
+                fireIntervalRemoved(this, newSize, oldSize - 1);
+            }
+            else if (oldSize < newSize) {
+                fireIntervalAdded(this, oldSize, newSize - 1);
+            }
+            fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+        }
+
+        public int getSize() {
+            return shownTasks.size() + 1;
+        }
+
+        public Object getElementAt(int index) {
+            return index == 0 ? rootTask : shownTasks.get(index - 1);
+        }
+
+        public void setSelectedItem(Object item) {
+            if (selectedItem != item) {
+                selectedItem = item;
+                fireContentsChanged(this, -1, -1);
+            }
+        }
+
+        public Object getSelectedItem() {
+            return selectedItem;
+        }
+    }
+
+    /**
+     * Combo box priority cell renderer.
+     */
+    class PriorityComboBoxRenderer extends ColoredListCellRenderer {
+        public PriorityComboBoxRenderer() {
+            setOpaque(true);
+        }
+
+        @Override
+        protected void customizeCellRenderer(JList list, Object value, int index, boolean selected, boolean hasFocus) {
+            TaskPriority priority = (TaskPriority) value;
+            setIcon(UIUtil.findIcon(priority));
+            append(priority.toString(), new SimpleTextAttributes(SimpleTextAttributes.STYLE_PLAIN, getForeground()));
+        }
+    }
+
+    /**
+     * Combo box tasks cell renderer.
+     */
+    class TaskComboBoxRenderer extends ColoredListCellRenderer {
+        public TaskComboBoxRenderer() {
+            setOpaque(true);
+        }
+
+        @Override
+        protected void customizeCellRenderer(JList list, Object value, int index, boolean selected, boolean hasFocus) {
+            ITask task = (ITask) value;
+            append(task.getTitle(), new SimpleTextAttributes(SimpleTextAttributes.STYLE_PLAIN, getForeground()));
+            setIcon(UIUtil.createIcon(task));
+        }
+    }
+}
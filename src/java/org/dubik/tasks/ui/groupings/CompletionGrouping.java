@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.groupings;
+
+import org.dubik.tasks.TasksBundle;
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskGrouping;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups tasks by their completion, incomplete tasks come first.
+ */
+public class CompletionGrouping implements ITaskGrouping<Boolean> {
+    @NotNull
+    public List<Boolean> getKeys() {
+        return Arrays.asList(Boolean.FALSE, Boolean.TRUE);
+    }
+
+    public Boolean getKey(@NotNull ITask task) {
+        return task.isCompleted();
+    }
+
+    @NotNull
+    public String getTitle(Boolean key) {
+        return TasksBundle.message(key ? "group.completed" : "group.not-completed");
+    }
+}
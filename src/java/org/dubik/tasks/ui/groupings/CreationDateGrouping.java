@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.groupings;
+
+import org.dubik.tasks.TasksBundle;
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskGrouping;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Groups tasks by the day they were created: today, yesterday, earlier this week,
+ * earlier this month and older. Boundaries of the periods follow the current day,
+ * they are calculated again when a key is requested on another day.
+ */
+public class CreationDateGrouping implements ITaskGrouping<CreationDateGrouping.Period> {
+    public enum Period {
+        Today("group.created.today"),
+        Yesterday("group.created.yesterday"),
+        ThisWeek("group.created.this-week"),
+        ThisMonth("group.created.this-month"),
+        Older("group.created.older");
+
+        private String titleKey;
+
+        Period(String titleKey) {
+            this.titleKey = titleKey;
+        }
+    }
+
+    private long today;
+    private long tomorrow;
+    private long yesterday;
+    private long thisWeek;
+    private long thisMonth;
+
+    @NotNull
+    public List<Period> getKeys() {
+        return Arrays.asList(Period.values());
+    }
+
+    public Period getKey(@NotNull ITask task) {
+        return getKey(task, System.currentTimeMillis());
+    }
+
+    Period getKey(@NotNull ITask task, long now) {
+        updatePeriods(now);
+
+        long created = task.getCreationTime();
+        if (created >= today) {
+            return Period.Today;
+        }
+        if (created >= yesterday) {
+            return Period.Yesterday;
+        }
+        if (created >= thisWeek) {
+            return Period.ThisWeek;
+        }
+        if (created >= thisMonth) {
+            return Period.ThisMonth;
+        }
+
+        return Period.Older;
+    }
+
+    @NotNull
+    public String getTitle(Period key) {
+        return TasksBundle.message(key.titleKey);
+    }
+
+    /**
+     * Calculates boundaries of the periods, if specified time is not within the day
+     * they were calculated for.
+     *
+     * @param now current time
+     */
+    private void updatePeriods(long now) {
+        if (now >= today && now < tomorrow) {
+            return;
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        today = calendar.getTimeInMillis();
+
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        tomorrow = calendar.getTimeInMillis();
+
+        calendar.setTimeInMillis(today);
+        calendar.add(Calendar.DAY_OF_MONTH, -1);
+        yesterday = calendar.getTimeInMillis();
+
+        calendar.setTimeInMillis(today);
+        calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+        if (calendar.getTimeInMillis() > today) {
+            calendar.add(Calendar.WEEK_OF_YEAR, -1);
+        }
+        thisWeek = calendar.getTimeInMillis();
+
+        calendar.setTimeInMillis(today);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        thisMonth = calendar.getTimeInMillis();
+    }
+}
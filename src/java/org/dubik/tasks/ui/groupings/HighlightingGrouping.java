@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.groupings;
+
+import org.dubik.tasks.TasksBundle;
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskGrouping;
+import org.dubik.tasks.model.TaskHighlightingType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups tasks by colour of their highlighting. Tasks which are not highlighted
+ * are in the last group.
+ */
+public class HighlightingGrouping implements ITaskGrouping<HighlightingGrouping.Highlighting> {
+    public enum Highlighting {
+        Red(TaskHighlightingType.Red),
+        Yellow(TaskHighlightingType.Yellow),
+        Green(TaskHighlightingType.Green),
+        NotHighlighted(null);
+
+        private TaskHighlightingType type;
+
+        Highlighting(TaskHighlightingType type) {
+            this.type = type;
+        }
+
+        /**
+         * Returns highlighting type of the group.
+         *
+         * @return highlighting type or <code>null</code> for tasks which are not highlighted
+         */
+        @Nullable
+        public TaskHighlightingType getHighlightingType() {
+            return type;
+        }
+    }
+
+    @NotNull
+    public List<Highlighting> getKeys() {
+        return Arrays.asList(Highlighting.values());
+    }
+
+    public Highlighting getKey(@NotNull ITask task) {
+        if (!task.isHighlighted()) {
+            return Highlighting.NotHighlighted;
+        }
+
+        switch (task.getHighlightingType()) {
+            case Yellow:
+                return Highlighting.Yellow;
+            case Green:
+                return Highlighting.Green;
+            default:
+                return Highlighting.Red;
+        }
+    }
+
+    @NotNull
+    public String getTitle(Highlighting key) {
+        return key == Highlighting.NotHighlighted ? TasksBundle.message("group.not-highlighted") : key.toString();
+    }
+}
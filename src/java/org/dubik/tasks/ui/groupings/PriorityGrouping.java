@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.groupings;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskGrouping;
+import org.dubik.tasks.model.TaskPriority;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups tasks by their priority.
+ */
+public class PriorityGrouping implements ITaskGrouping<TaskPriority> {
+    @NotNull
+    public List<TaskPriority> getKeys() {
+        return Arrays.asList(TaskPriority.values());
+    }
+
+    public TaskPriority getKey(@NotNull ITask task) {
+        return task.getPriority();
+    }
+
+    @NotNull
+    public String getTitle(TaskPriority key) {
+        return key.toString();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.tree;
+
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskGroup;
+import org.dubik.tasks.settings.TaskSettings;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Formats details shown next to the title of a task in the tree, e.g. estimated
+ * and actual time or completion of the sub tasks. Details are appended to a
+ * buffer supplied by the caller, so it can be reused for every row.
+ */
+public class TaskDetailsFormatter {
+    private final TaskSettings settings;
+
+    public TaskDetailsFormatter(@NotNull TaskSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Appends details of specified task.
+     *
+     * @param details buffer to append to
+     * @param task    task
+     * @return <code>true</code> if anything has been appended
+     */
+    public boolean appendTaskDetails(@NotNull StringBuilder details, @NotNull ITask task) {
+        int length = details.length();
+        int totalTasks = task.size();
+        long estimated = task.getEstimatedTime();
+        long actual = task.getActualTime();
+        if (totalTasks == 0) {
+            if (settings.isEnableActualTime()) {
+                if (estimated != 0 || actual != 0) {
+                    details.append('(');
+                    appendTime(details, actual);
+
+                    if (estimated != 0) {
+                        details.append('/');
+                        appendTime(details, estimated);
+                    }
+
+                    details.append(')');
+                }
+            }
+            else {
+                if (estimated != 0) {
+                    details.append('(');
+                    appendTime(details, estimated);
+                    details.append(')');
+                }
+            }
+        }
+        else {
+            details.append('(').append(totalTasks).append("个任务, 完成: ").append(task.getCompletionRatio()).append("%)");
+        }
+
+        return details.length() != length;
+    }
+
+    public void appendGroupDetails(@NotNull StringBuilder details, @NotNull ITaskGroup taskGroup) {
+        int totalTasks = taskGroup.size();
+        int completedTasks = 0;
+        for (int i = 0; i < totalTasks; i++) {
+            if (taskGroup.get(i).isCompleted()) {
+                completedTasks++;
+            }
+        }
+
+        int complInPerc = 0;
+        if (totalTasks > 0) {
+            complInPerc = completedTasks * 100 / totalTasks;
+        }
+
+        details.append('(').append(totalTasks).append(" Tasks, ").append(complInPerc).append("% Completed)");
+    }
+
+    /**
+     * Appends time in hours and minutes, e.g. <code>1h30m</code>.
+     *
+     * @param details buffer to append to
+     * @param seconds time in seconds
+     */
+    public void appendTime(@NotNull StringBuilder details, long seconds) {
+        int inMinutes = (int) (seconds / 60);
+        int hours = inMinutes / 60;
+        int minutes = inMinutes % 60;
+
+        if (hours != 0) {
+            details.append(hours).append('h');
+        }
+        if ((minutes != 0) || (inMinutes == 0)) {
+            details.append(minutes).append('m');
+        }
+    }
+}
@@ -34,6 +34,9 @@ public class TaskTransferHandler extends TransferHandler {
 
     private TaskController taskController;
 
+    // tasks dragged from this tree, known until the drag is finished
+    private TransferableTask dragSession;
+
     public TaskTransferHandler(TaskController taskController) {
         this.taskController = taskController;
     }
@@ -42,7 +45,8 @@ public class TaskTransferHandler extends TransferHandler {
     @Override
     protected Transferable createTransferable(JComponent c) {
         if (taskController.getSelectedTasks().size() > 0) {
-            return new TransferableTask(taskController.getSelectedTasks());
+            dragSession = new TransferableTask(taskController.getSelectedTasks());
+            return dragSession;
         }
         return null;
     }
@@ -65,6 +69,16 @@ public class TaskTransferHandler extends TransferHandler {
         Tree.DropLocation dropLocation = (Tree.DropLocation) support.getDropLocation();
         ITask dropTask = (ITask) dropLocation.getPath().getLastPathComponent();
 
+        if (dropTask instanceof ITaskGroup && model.getRoot() != dropTask) {
+            //don't drop on TaskGroups, except the root
+            return false;
+        }
+        else if (dragSession != null) {
+            //don't drop on self or a child, drop targets are known since the drag has started
+            return dropTask != null && dragSession.canDropOn(dropTask);
+        }
+
+        //tasks are dragged from another tree
         Transferable transferable = support.getTransferable();
         List<ITask> dragTask = null;
         try {
@@ -77,18 +91,14 @@ public class TaskTransferHandler extends TransferHandler {
             e.printStackTrace();
         }
 
-        if (dropTask instanceof ITaskGroup && model.getRoot() != dropTask) {
-            //don't drop on TaskGroups, except the root
-            return false;
-        }
-        else if (dragTask.contains(dropTask)) {
+        if (dragTask.contains(dropTask)) {
             //don't drop on self
             return false;
         }
         else {
             //don't drop on a child.
             for (ITask iTask : dragTask) {
-                if (taskController.getSubTasks(iTask).contains(dropTask)) {
+                if (taskController.isSubTask(dropTask, iTask)) {
                     return false;
                 }
             }
@@ -112,13 +122,7 @@ public class TaskTransferHandler extends TransferHandler {
             Transferable transferable = support.getTransferable();
             List<ITask> dragTask = (List<ITask>) transferable.getTransferData(TransferableTask.TASK_FLAVOR);
             if (dragTask != null) {
-                int dropIndex = dropLocation.getChildIndex();
-                for (ITask iTask : dragTask) {
-                    taskController.moveTask(iTask, dropTask, dropIndex);
-                    if (dropIndex > -1) {
-                        dropIndex++;
-                    }
-                }
+                taskController.moveTasks(dragTask, dropTask, dropLocation.getChildIndex());
             }
             return true;
         }
@@ -130,7 +134,7 @@ public class TaskTransferHandler extends TransferHandler {
 
     @Override
     protected void exportDone(JComponent source, Transferable data, int action) {
-
+        dragSession = null;
     }
 
     @Override
@@ -1,214 +1,249 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.ui.tree;
-
-import com.intellij.ui.*;
-import org.dubik.tasks.TasksBundle;
-import org.dubik.tasks.model.*;
-import org.dubik.tasks.settings.TaskSettings;
-import org.dubik.tasks.settings.TaskSettingsService;
-import org.dubik.tasks.utils.UIUtil;
-import org.jetbrains.annotations.NotNull;
-
-import javax.swing.*;
-
-/**
- * Renders items in task tree.
- *
- * @author Sergiy Dubovik
- */
-public class TaskTreeCellRenderer extends ColoredTreeCellRenderer {
-    private static final SimpleTextAttributes STRIKEOUT_REGULAR_ATTRIBUTES = new SimpleTextAttributes(SimpleTextAttributes.STYLE_STRIKEOUT, JBColor.GRAY);
-    private static final SimpleTextAttributes STRIKEOUT_GRAY_ATTRIBUTES = new SimpleTextAttributes(SimpleTextAttributes.STYLE_STRIKEOUT, JBColor.GRAY);
-    private static final SimpleTextAttributes BOLD = new SimpleTextAttributes(SimpleTextAttributes.STYLE_BOLD, SimpleTextAttributes.REGULAR_ATTRIBUTES.getFgColor());
-
-    private TaskSettings settings;
-
-    public TaskTreeCellRenderer() {
-        settings = TaskSettingsService.getSettings();
-    }
-
-    public void customizeCellRenderer(@NotNull JTree tree, Object value,
-                                      boolean selected, boolean expanded,
-                                      boolean leaf, int row, boolean hasFocus) {
-        if (!(value instanceof ITask)) {
-            return;
-        }
-
-        ITask task = (ITask) value;
-
-        SimpleTextAttributes titleAttr = SimpleTextAttributes.REGULAR_ATTRIBUTES;
-        SimpleTextAttributes restAttr = SimpleTextAttributes.GRAY_ATTRIBUTES;
-        SimpleTextAttributes groupTitleAttr = SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES;
-
-        if (task.isRunning()) {
-            titleAttr = SimpleTextAttributes.merge(titleAttr, BOLD);
-        }
-
-        if (task.isCompleted()) {
-            titleAttr = STRIKEOUT_REGULAR_ATTRIBUTES;
-            restAttr = STRIKEOUT_GRAY_ATTRIBUTES;
-        }
-
-        if (value instanceof ITaskGroup) {
-            ITaskGroup taskGroup = (ITaskGroup) value;
-            try {
-                TaskPriority groupPriority = TaskPriority.parse(taskGroup.getTitle());
-                setIcon(UIUtil.findIcon(groupPriority));
-            }
-            catch (IllegalArgumentException e) {
-                setIcon(UIUtil.getIcon(UIUtil.ICON_TASK));
-            }
-
-            append(task.getTitle(), groupTitleAttr);
-            append(" ", titleAttr);
-            String details = makeDetailsForGroup(taskGroup);
-            append(details, restAttr);
-        }
-        else {
-            setIcon(UIUtil.createIcon(task));
-            append(task.getTitle(), titleAttr);
-            String details = makeDetailsForTask(task);
-            if (details.length() != 0) {
-                append(" ", restAttr);
-                append(details, restAttr);
-            }
-        }
-
-        setToolTipText(makeTooltipFromTask(task));
-
-        setIconTextGap(3);
-
-        boolean isDropCell = false;
-
-        JTree.DropLocation dropLocation = tree.getDropLocation();
-        if (dropLocation != null && dropLocation.getChildIndex() == -1 && tree.getRowForPath(dropLocation.getPath()) == row) {
-            isDropCell = true;
-        }
-
-        setBorder(isDropCell ? BorderFactory.createLineBorder(JBColor.RED) : null);
-    }
-
-    private String makeDetailsForTask(ITask task) {
-        int totalTasks = task.size();
-        long estimated = task.getEstimatedTime();
-        StringBuilder details = new StringBuilder();
-        long actual = task.getActualTime();
-        if (totalTasks == 0) {
-            if (settings.isEnableActualTime()) {
-                if (estimated != 0 || actual != 0) {
-                    details.append("(");
-                    details.append(makeStringFromTime(actual));
-
-
-                    if (estimated != 0) {
-                        details.append("/");
-                        details.append(makeStringFromTime(estimated));
-                    }
-
-                    details.append(")");
-                }
-            }
-            else {
-                if (estimated != 0) {
-                    details.append("(");
-                    details.append(makeStringFromTime(estimated));
-                    details.append(")");
-                }
-            }
-        }
-        else {
-            details.append("(").append(totalTasks).append("个任务, 完成: ").append(task.getCompletionRatio()).append("%");
-
-
-//            if (estimated != 0 || actual != 0) {
-//                details.append(", ").append(makeStringFromTime(actual));
-//                if (estimated != 0) {
-//                    details.append("/").append(makeStringFromTime(estimated));
-//                }
-//            }
-
-            details.append(")");
-        }
-
-        return details.toString();
-    }
-
-    private String makeDetailsForGroup(ITaskGroup taskGroup) {
-        int totalTasks = taskGroup.size();
-        int completedTasks = 0;
-        for (int i = 0; i < totalTasks; i++) {
-            ITask task = taskGroup.get(i);
-            if (task.isCompleted()) {
-                completedTasks++;
-            }
-        }
-
-        StringBuilder details = new StringBuilder();
-        details.append("(");
-        details.append(totalTasks);
-        details.append(" Tasks, ");
-        int complInPerc = 0;
-        if (totalTasks > 0) {
-            complInPerc = completedTasks * 100 / totalTasks;
-        }
-        details.append(complInPerc);
-        details.append("% Completed)");
-
-        return details.toString();
-    }
-
-    private String makeStringFromTime(long seconds) {
-        int inMinutes = (int) (seconds / 60);
-        int hours = inMinutes / 60;
-        int minutes = inMinutes % 60;
-
-        StringBuilder timeStr = new StringBuilder();
-
-        if (hours != 0) {
-            timeStr.append(Integer.toString(hours));
-            timeStr.append("h");
-        }
-        if ((minutes != 0) || (inMinutes == 0)) {
-            timeStr.append(Integer.toString(minutes));
-            timeStr.append("m");
-        }
-        return timeStr.toString();
-    }
-
-    private String makeTooltipFromTask(ITask task) {
-        if (task.size() != 0) {
-            int subTasks = task.size();
-            int complete = completed(task);
-            int incomplete = subTasks - complete;
-            return TasksBundle.message("tree.tooltip.template", task.getTitle(), task.size(), complete, incomplete, task.getDescription() == null? "" : task.getDescription());
-        }
-        else {
-            return task.getDescription();
-        }
-    }
-
-    private int completed(ITask task) {
-        int completed = 0;
-        for (int i = 0; i < task.size(); i++) {
-            if (task.get(i).isCompleted()) {
-                completed++;
-            }
-        }
-
-        return completed;
-    }
-}
\ No newline at end of file
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.tree;
+
+import com.intellij.ui.*;
+import org.dubik.tasks.TasksBundle;
+import org.dubik.tasks.model.*;
+import org.dubik.tasks.settings.TaskSettings;
+import org.dubik.tasks.settings.TaskSettingsService;
+import org.dubik.tasks.ui.groupings.HighlightingGrouping;
+import org.dubik.tasks.utils.UIUtil;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Renders items in task tree. Rendering a row doesn't allocate anything except
+ * the text of its details: icons and text attributes are shared and the details
+ * are built in a reused buffer. Tooltip is built only when the tree asks for it.
+ * <p/>
+ * Details, icon and tooltip of a task are cached until the task or the settings
+ * change, so repainting an unchanged row is a cache lookup.
+ *
+ * @author Sergiy Dubovik
+ */
+public class TaskTreeCellRenderer extends ColoredTreeCellRenderer {
+    private static final SimpleTextAttributes STRIKEOUT_REGULAR_ATTRIBUTES = new SimpleTextAttributes(SimpleTextAttributes.STYLE_STRIKEOUT, JBColor.GRAY);
+    private static final SimpleTextAttributes STRIKEOUT_GRAY_ATTRIBUTES = new SimpleTextAttributes(SimpleTextAttributes.STYLE_STRIKEOUT, JBColor.GRAY);
+    private static final SimpleTextAttributes BOLD = new SimpleTextAttributes(SimpleTextAttributes.STYLE_BOLD, SimpleTextAttributes.REGULAR_ATTRIBUTES.getFgColor());
+    private static final SimpleTextAttributes RUNNING_ATTRIBUTES = SimpleTextAttributes.merge(SimpleTextAttributes.REGULAR_ATTRIBUTES, BOLD);
+    private static final Border DROP_CELL_BORDER = BorderFactory.createLineBorder(JBColor.RED);
+
+    private TaskSettings settings;
+    private TaskDetailsFormatter detailsFormatter;
+    private StringBuilder details = new StringBuilder();
+
+    // task of the last rendered row, its tooltip is built on demand
+    private ITask tooltipTask;
+    private RenderedTask tooltipEntry;
+
+    private Map<ITask, RenderedTask> renderedTasks = new WeakHashMap<ITask, RenderedTask>();
+
+    public TaskTreeCellRenderer() {
+        this(TaskSettingsService.getSettings());
+    }
+
+    public TaskTreeCellRenderer(@NotNull TaskSettings settings) {
+        this.settings = settings;
+        detailsFormatter = new TaskDetailsFormatter(settings);
+    }
+
+    public void customizeCellRenderer(@NotNull JTree tree, Object value,
+                                      boolean selected, boolean expanded,
+                                      boolean leaf, int row, boolean hasFocus) {
+        tooltipTask = null;
+        tooltipEntry = null;
+        if (!(value instanceof ITask)) {
+            return;
+        }
+
+        ITask task = (ITask) value;
+
+        SimpleTextAttributes titleAttr = SimpleTextAttributes.REGULAR_ATTRIBUTES;
+        SimpleTextAttributes restAttr = SimpleTextAttributes.GRAY_ATTRIBUTES;
+        SimpleTextAttributes groupTitleAttr = SimpleTextAttributes.REGULAR_BOLD_ATTRIBUTES;
+
+        if (task.isRunning()) {
+            titleAttr = RUNNING_ATTRIBUTES;
+        }
+
+        if (task.isCompleted()) {
+            titleAttr = STRIKEOUT_REGULAR_ATTRIBUTES;
+            restAttr = STRIKEOUT_GRAY_ATTRIBUTES;
+        }
+
+        details.setLength(0);
+        if (value instanceof ITaskGroup) {
+            ITaskGroup taskGroup = (ITaskGroup) value;
+            setIcon(findGroupIcon(taskGroup.getGroupKey()));
+
+            append(task.getTitle(), groupTitleAttr);
+            append(" ", titleAttr);
+            detailsFormatter.appendGroupDetails(details, taskGroup);
+            append(details.toString(), restAttr);
+        }
+        else {
+            RenderedTask rendered = getRenderedTask(task);
+            setIcon(rendered.icon);
+            append(task.getTitle(), titleAttr);
+            if (rendered.details != null) {
+                append(" ", restAttr);
+                append(rendered.details, restAttr);
+            }
+            tooltipEntry = rendered;
+        }
+
+        tooltipTask = task;
+
+        setIconTextGap(3);
+
+        boolean isDropCell = false;
+
+        JTree.DropLocation dropLocation = tree.getDropLocation();
+        if (dropLocation != null && dropLocation.getChildIndex() == -1 && tree.getRowForPath(dropLocation.getPath()) == row) {
+            isDropCell = true;
+        }
+
+        setBorder(isDropCell ? DROP_CELL_BORDER : null);
+    }
+
+    @Override
+    public String getToolTipText() {
+        if (tooltipEntry != null) {
+            if (!tooltipEntry.hasTooltip) {
+                tooltipEntry.tooltip = makeTooltipFromTask(tooltipTask);
+                tooltipEntry.hasTooltip = true;
+            }
+
+            return tooltipEntry.tooltip;
+        }
+
+        return tooltipTask == null ? null : makeTooltipFromTask(tooltipTask);
+    }
+
+    /**
+     * Drops all cached renderings, e.g. when the way tasks are shown has changed.
+     * Tasks are rendered again when their rows are painted.
+     */
+    public void clearCache() {
+        renderedTasks.clear();
+        tooltipTask = null;
+        tooltipEntry = null;
+    }
+
+    /**
+     * Returns cached rendering of the task, renders it again if the task or the
+     * settings have changed since it was cached.
+     *
+     * @param task task to render
+     * @return rendering of the task
+     */
+    private RenderedTask getRenderedTask(ITask task) {
+        int settingsKey = getSettingsKey();
+        RenderedTask rendered = renderedTasks.get(task);
+        if (rendered != null && rendered.stamp == task.getModificationStamp() && rendered.settingsKey == settingsKey) {
+            return rendered;
+        }
+
+        if (rendered == null) {
+            rendered = new RenderedTask();
+            renderedTasks.put(task, rendered);
+        }
+
+        details.setLength(0);
+        rendered.stamp = task.getModificationStamp();
+        rendered.settingsKey = settingsKey;
+        rendered.icon = UIUtil.createIcon(task, settings);
+        rendered.details = detailsFormatter.appendTaskDetails(details, task) ? details.toString() : null;
+        rendered.tooltip = null;
+        rendered.hasTooltip = false;
+
+        return rendered;
+    }
+
+    /**
+     * Combines the settings which affect rendering of a task.
+     */
+    private int getSettingsKey() {
+        int key = 0;
+        if (settings.isEnableActualTime()) {
+            key |= 1;
+        }
+        if (settings.isPropagatePriority()) {
+            key |= 1 << 1;
+        }
+        if (settings.isPriorityPropagatedOneLevelOnly()) {
+            key |= 1 << 2;
+        }
+
+        return key;
+    }
+
+    private Icon findGroupIcon(Object groupKey) {
+        if (groupKey instanceof TaskPriority) {
+            return UIUtil.findIcon((TaskPriority) groupKey);
+        }
+
+        if (groupKey instanceof HighlightingGrouping.Highlighting) {
+            TaskHighlightingType highlightingType = ((HighlightingGrouping.Highlighting) groupKey).getHighlightingType();
+            if (highlightingType != null) {
+                return UIUtil.findIcon(highlightingType);
+            }
+        }
+
+        return UIUtil.getIcon(UIUtil.ICON_TASK);
+    }
+
+    private String makeTooltipFromTask(ITask task) {
+        if (task.size() != 0) {
+            int subTasks = task.size();
+            int complete = completed(task);
+            int incomplete = subTasks - complete;
+            return TasksBundle.message("tree.tooltip.template", task.getTitle(), task.size(), complete, incomplete, task.getDescription() == null? "" : task.getDescription());
+        }
+        else {
+            return task.getDescription();
+        }
+    }
+
+    private int completed(ITask task) {
+        int completed = 0;
+        for (int i = 0; i < task.size(); i++) {
+            if (task.get(i).isCompleted()) {
+                completed++;
+            }
+        }
+
+        return completed;
+    }
+
+    /**
+     * Rendering of a task, valid while the task has the same modification stamp
+     * and the settings are the same.
+     */
+    private static class RenderedTask {
+        private long stamp;
+        private int settingsKey;
+        private Icon icon;
+        private String details;
+        private String tooltip;
+        private boolean hasTooltip;
+    }
+}
@@ -18,11 +18,23 @@ package org.dubik.tasks.ui.tree;
 import com.intellij.ui.treeStructure.Tree;
 import com.intellij.util.ui.tree.TreeUtil;
 import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskFilter;
+import org.dubik.tasks.model.ITaskGrouping;
 import org.dubik.tasks.model.TaskChangeEvent;
-import org.dubik.tasks.ui.filters.HideCompletedFilter;
+import org.dubik.tasks.model.TaskPriority;
+import org.dubik.tasks.ui.filters.*;
+import org.dubik.tasks.ui.groupings.PriorityGrouping;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.event.TreeModelEvent;
+import javax.swing.tree.TreeCellRenderer;
 import javax.swing.tree.TreePath;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
 
 /**
  * @author Sergiy Dubovik
@@ -30,13 +42,14 @@ import javax.swing.tree.TreePath;
 public class TaskTreeController {
     private TaskTreeModel treeModel;
     private Tree tree;
-    private boolean groupedByPriority;
     private boolean hideCompletedTasks;
+    private TaskPriority shownPriority;
+    private boolean showOnlyHighlighted;
+    private SearchFilter searchFilter;
 
     public TaskTreeController(TaskTreeModel treeModel, Tree tree) {
         this.treeModel = treeModel;
         this.tree = tree;
-        groupedByPriority = false;
         hideCompletedTasks = false;
     }
 
@@ -45,32 +58,135 @@ public class TaskTreeController {
     }
 
     public void groupByPriority(boolean group) {
-        groupedByPriority = group;
-        treeModel.groupByPriority(groupedByPriority);
+        groupBy(group ? new PriorityGrouping() : null);
+    }
+
+    public boolean isGroupByPriority() {
+        return getGrouping() instanceof PriorityGrouping;
+    }
+
+    /**
+     * Groups top level tasks by specified grouping.
+     *
+     * @param grouping grouping of the tasks, <code>null</code> to show tasks without groups
+     */
+    public void groupBy(ITaskGrouping<?> grouping) {
+        List<Object> expandedObjects = getExpandedObjects();
+        TreePath[] selections = tree.getSelectionPaths();
 
-        if (groupedByPriority) {
+        treeModel.groupBy(grouping);
+
+        if (grouping != null) {
             expandWholeTreeOneLevel(treeModel.getRoot());
         }
+
+        //tasks have got new paths, expand and select them again
+        for (Object obj : expandedObjects) {
+            expandToObject(obj);
+        }
+
+        if (selections != null) {
+            List<TreePath> newSelections = new ArrayList<TreePath>(selections.length);
+            for (TreePath selection : selections) {
+                TreePath path = pathToObject(selection.getLastPathComponent());
+                if (path != null) {
+                    newSelections.add(path);
+                }
+            }
+            tree.setSelectionPaths(newSelections.toArray(new TreePath[newSelections.size()]));
+        }
     }
 
-    public boolean isGroupByPriority() {
-        return groupedByPriority;
+    private List<Object> getExpandedObjects() {
+        List<Object> expandedObjects = new ArrayList<Object>();
+        Enumeration<TreePath> expandedPaths = tree.getExpandedDescendants(new TreePath(treeModel.getRoot()));
+        if (expandedPaths != null) {
+            while (expandedPaths.hasMoreElements()) {
+                expandedObjects.add(expandedPaths.nextElement().getLastPathComponent());
+            }
+        }
+
+        return expandedObjects;
+    }
+
+    public ITaskGrouping<?> getGrouping() {
+        return treeModel.getGrouping();
     }
 
     public void hideCompletedTasks(boolean hide) {
         hideCompletedTasks = hide;
-        if (hide) {
-            treeModel.setTaskFilter(new HideCompletedFilter());
-        }
-        else {
-            treeModel.setTaskFilter(null);
-        }
+        updateTaskFilter();
     }
 
     public boolean isHideCompletedTasks() {
         return hideCompletedTasks;
     }
 
+    /**
+     * Shows only tasks with specified priority.
+     *
+     * @param priority priority of the shown tasks, <code>null</code> to show tasks with any priority
+     */
+    public void showOnlyPriority(@Nullable TaskPriority priority) {
+        shownPriority = priority;
+        updateTaskFilter();
+    }
+
+    @Nullable
+    public TaskPriority getShownPriority() {
+        return shownPriority;
+    }
+
+    public void showOnlyHighlighted(boolean show) {
+        showOnlyHighlighted = show;
+        updateTaskFilter();
+    }
+
+    public boolean isShowOnlyHighlighted() {
+        return showOnlyHighlighted;
+    }
+
+    /**
+     * Shows only tasks found by specified search and their parents.
+     *
+     * @param searchFilter search to show, <code>null</code> to show all tasks
+     */
+    public void showSearchResults(@Nullable SearchFilter searchFilter) {
+        this.searchFilter = searchFilter;
+        updateTaskFilter();
+    }
+
+    @Nullable
+    public SearchFilter getSearchFilter() {
+        return searchFilter;
+    }
+
+    /**
+     * Combines all active filters into one pipeline, cheap filters go first.
+     */
+    private void updateTaskFilter() {
+        List<ITaskFilter> filters = new ArrayList<ITaskFilter>();
+        if (shownPriority != null) {
+            filters.add(new PriorityFilter(shownPriority));
+        }
+        if (showOnlyHighlighted) {
+            filters.add(new HighlightedFilter());
+        }
+        if (hideCompletedTasks) {
+            filters.add(new HideCompletedFilter());
+        }
+        if (searchFilter != null) {
+            filters.add(searchFilter);
+        }
+
+        if (filters.isEmpty()) {
+            treeModel.setTaskFilter(null);
+        }
+        else {
+            treeModel.setTaskFilter(new TaskFilterPipeline(filters.toArray(new ITaskFilter[filters.size()])));
+        }
+    }
+
     private void expandWholeTreeOneLevel(Object root) {
         TreePath rootPath = new TreePath(root);
         for (int i = 0; i < treeModel.getChildCount(root); i++) {
@@ -81,28 +197,64 @@ public class TaskTreeController {
     }
 
     public void expandToObject(Object obj) {
-        final Object root = treeModel.getRoot();
-        if (obj == root) {
-            tree.expandPath(new TreePath(root));
-        }
-        else {
-            Object[] path = treeModel.findPathToObject(root, obj);
-            if (path.length > 0) {
-                tree.expandPath(new TreePath(path).pathByAddingChild(obj));
-            }
+        TreePath path = treeModel.getPathToObject(obj);
+        if (path != null) {
+            tree.expandPath(path);
         }
     }
 
+    /**
+     * Updates the tree after the way tasks are shown has changed, e.g. after a change
+     * of the settings. Cached renderings are dropped and only the rows in the visible
+     * part of the tree are reported as changed, one event per parent, so the cost
+     * doesn't depend on the size of the model. Rows out of view are rendered again
+     * when they are scrolled in.
+     */
     public void changedTree() {
-        changedTreeRecursively(new TreePath(treeModel.getRoot()));
-    }
+        TreeCellRenderer renderer = tree.getCellRenderer();
+        if (renderer instanceof TaskTreeCellRenderer) {
+            ((TaskTreeCellRenderer) renderer).clearCache();
+        }
 
-    private void changedTreeRecursively(TreePath path) {
-        treeModel.fireTreeNodesChanged(new TreeModelEvent(this, path));
+        Rectangle visibleRect = tree.getVisibleRect();
+        int firstRow = tree.getClosestRowForLocation(visibleRect.x, visibleRect.y);
+        int lastRow = tree.getClosestRowForLocation(visibleRect.x, visibleRect.y + visibleRect.height);
+        if (firstRow == -1) {
+            tree.repaint();
+            return;
+        }
 
-        Object root = path.getLastPathComponent();
-        for (int i = 0; i < treeModel.getChildCount(root); i++) {
-            changedTreeRecursively(path.pathByAddingChild(treeModel.getChild(root, i)));
+        TreePath parentPath = null;
+        int[] indices = new int[lastRow - firstRow + 1];
+        Object[] children = new Object[indices.length];
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            TreePath path = tree.getPathForRow(row);
+            if (path == null || path.getParentPath() == null) {
+                continue;
+            }
+
+            if (parentPath != null && !parentPath.equals(path.getParentPath())) {
+                fireNodesChanged(parentPath, indices, children, count);
+                count = 0;
+            }
+
+            parentPath = path.getParentPath();
+            indices[count] = treeModel.getIndexOfChild(parentPath.getLastPathComponent(), path.getLastPathComponent());
+            children[count] = path.getLastPathComponent();
+            count++;
+        }
+
+        if (parentPath != null) {
+            fireNodesChanged(parentPath, indices, children, count);
+        }
+    }
+
+    private void fireNodesChanged(TreePath parentPath, int[] indices, Object[] children, int count) {
+        if (count > 0) {
+            treeModel.fireTreeNodesChanged(new TreeModelEvent(this, parentPath,
+                                                              Arrays.copyOf(indices, count),
+                                                              Arrays.copyOf(children, count)));
         }
     }
 
@@ -111,16 +263,14 @@ public class TaskTreeController {
     }
 
     public void selectObject(Object task) {
-        TreePath path = pathToObject(task).pathByAddingChild(task);
-        tree.setSelectionPath(path);
+        TreePath path = pathToObject(task);
+        if (path != null) {
+            tree.setSelectionPath(path);
+        }
     }
 
     protected TreePath pathToObject(Object task) {
-        if (task == treeModel.getRoot()) {
-            return new TreePath(treeModel.getRoot());
-        }
-
-        return new TreePath(treeModel.findPathToObject(treeModel.getRoot(), task));
+        return treeModel.getPathToObject(task);
     }
 
     public TreePath[] getSelections() {
@@ -149,4 +299,16 @@ public class TaskTreeController {
     public void taskChanged(ITask task) {
         treeModel.handleChangeTaskEvent(new TaskChangeEvent(task.getParent(), task, treeModel.getIndexOfChild(task.getParent(), task)));
     }
+
+    /**
+     * Refreshes specified tasks. Their parents show total time of the sub tasks, the tree
+     * model refreshes them together with every changed task.
+     *
+     * @param tasks changed tasks
+     */
+    public void tasksChanged(Collection<ITask> tasks) {
+        for (ITask task : tasks) {
+            taskChanged(task);
+        }
+    }
 }
\ No newline at end of file
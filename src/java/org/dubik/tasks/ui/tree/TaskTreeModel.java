@@ -1,278 +1,1214 @@
-/*
- * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package org.dubik.tasks.ui.tree;
-
-import org.dubik.tasks.model.*;
-import org.dubik.tasks.model.impl.Task;
-import org.dubik.tasks.model.impl.TaskGroup;
-import org.dubik.tasks.ui.filters.PriorityFilter;
-
-import javax.swing.event.EventListenerList;
-import javax.swing.event.TreeModelEvent;
-import javax.swing.event.TreeModelListener;
-import javax.swing.tree.TreeModel;
-import javax.swing.tree.TreePath;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
-/**
- * Task tree model. Feeds tree with the data.
- *
- * @author Sergiy Dubovik
- */
-public class TaskTreeModel implements TreeModel, ITaskModelChangeListener {
-    private EventListenerList listeners = new EventListenerList();
-    private ITaskGroup root;
-    private ITaskModel taskModel;
-    private ITaskFilter taskFilter;
-    private boolean isGrouped;
-
-    public TaskTreeModel(ITaskModel taskModel) {
-        this.taskModel = taskModel;
-
-        taskModel.addChangeListener(this);
-
-        root = new TaskGroup("All Tasks");
-        root.setTaskModel(taskModel);
-    }
-
-    public Object getRoot() {
-        return root;
-    }
-
-    public Object getChild(Object parent, int index) {
-        ITask task;
-
-        if (parent == null) {
-            task = root;
-        }
-        else {
-            task = (ITask) parent;
-        }
-
-        if (taskFilter != null) {
-            int taskIndex;
-
-            for (taskIndex = 0; taskIndex < task.size(); taskIndex++) {
-                if (taskFilter.accept(task.get(taskIndex))) {
-                    if (index == 0) {
-                        return task.get(taskIndex);
-                    }
-
-                    index--;
-                }
-            }
-        }
-        else {
-            return task.get(index);
-        }
-
-        return null;
-    }
-
-    public int getChildCount(Object parent) {
-        int size = 0;
-        ITask task = null;
-
-        if (parent == null) {
-            task = root;
-        }
-        if (parent instanceof ITask) {
-            task = (ITask) parent;
-        }
-
-        size = task.size();
-        if (taskFilter != null) {
-            for (int i = 0; i < task.size(); i++) {
-                if (!taskFilter.accept(task.get(i))) {
-                    size--;
-                }
-            }
-        }
-
-
-        return size;
-    }
-
-    public boolean isLeaf(Object node) {
-        return getChildCount(node) == 0;
-    }
-
-    public void valueForPathChanged(TreePath path, Object newValue) {
-        if (!isGrouped() && getTaskFilter() == null && path.getLastPathComponent() instanceof Task) {
-            Task task = (Task) path.getLastPathComponent();
-            if (!task.getTitle().equals(newValue)) {
-                task.setTitle((String) newValue);
-                TaskChangeEvent event = new TaskChangeEvent(task.getParent(), task, task.getParent() == null ? root.indexOf(task) : task.getParent().indexOf(task));
-                handleChangeTaskEvent(event);
-            }
-        }
-    }
-
-    public int getIndexOfChild(Object parent, Object child) {
-        for (int i = 0; i < getChildCount(parent); i++) {
-            if (getChild(parent, i) == child) {
-                return i;
-            }
-        }
-
-        return -1;
-    }
-
-    public void setTaskFilter(ITaskFilter taskFilter) {
-        this.taskFilter = taskFilter;
-        updateTree();
-    }
-
-    public ITaskFilter getTaskFilter() {
-        return taskFilter;
-    }
-
-    private void updateTree() {
-        fireTreeStructureChanged(new TreeModelEvent(this, new Object[]{root}));
-    }
-
-    public void handleAddTaskEvent(TaskChangeEvent event) {
-        ITask task = event.getTask();
-        Object[] pathToObject = findPathToObject(root, task);
-        TreePath path = new TreePath(pathToObject);
-
-        TreeModelEvent treeModelEvent = new TreeModelEvent(this, path, new int[]{event.getIndex()}, new Object[]{task});
-        if (getChildCount(getRoot()) == 1 ) {
-            fireTreeStructureChanged(treeModelEvent);
-        }
-        else {
-            fireTreeNodesInserted(treeModelEvent);
-        }
-    }
-
-    public void handlePreDeleteTaskEvent(TaskChangeEvent event) {
-    }
-
-    public void handleDeleteTaskEvent(TaskChangeEvent event) {
-        ITask task = event.getTask();
-        ITask parent = event.getParent();
-        Object[] pathToObject = parent == null ? new Object[]{root} : findPathToObject(root, parent);
-        TreePath path = new TreePath(pathToObject);
-
-        if (parent != null) {
-            path = path.pathByAddingChild(parent);
-        }
-
-        fireTreeNodesRemoved(new TreeModelEvent(this, path, new int[]{event.getIndex()}, new Object[]{task}));
-    }
-
-    public void handlePreChangeTaskEvent(TaskChangeEvent event) {
-    }
-
-    public void handleChangeTaskEvent(TaskChangeEvent event) {
-        ITask task = event.getTask();
-        Object[] pathToObject = findPathToObject(root, task);
-        TreePath path = new TreePath(pathToObject);
-
-        fireTreeNodesChanged(new TreeModelEvent(this, path, new int[]{event.getIndex()}, new Object[]{task}));
-    }
-
-    public Object[] findPathToObject(Object root, Object task) {
-        List<Object> path = new ArrayList<Object>();
-        findPathToObject(root, task, path);
-        Collections.reverse(path);
-        Object[] oPath = new Object[path.size()];
-        oPath = path.toArray(oPath);
-        return oPath;
-    }
-
-    private boolean findPathToObject(Object parent, Object task, List<Object> path) {
-        if (parent == task) {
-            return true;
-        }
-
-        for (int i = 0; i < getChildCount(parent); i++) {
-            if (findPathToObject(getChild(parent, i), task, path)) {
-                path.add(parent);
-                return true;
-            }
-
-        }
-
-        return false;
-    }
-
-    public void groupByPriority(boolean group) {
-        isGrouped = group;
-
-        ITaskGroup newRoot = new TaskGroup("All Tasks");
-
-        if (group) {
-            for (TaskPriority priority : TaskPriority.values()) {
-                ITaskGroup taskGroup = new TaskGroup(priority.toString());
-                taskGroup.setTaskModel(taskModel);
-                taskGroup.setTaskFilter(new PriorityFilter(priority));
-
-                newRoot.add(taskGroup);
-            }
-        }
-        else {
-            newRoot.setTaskModel(taskModel);
-        }
-
-        root = newRoot;
-        updateTree();
-    }
-
-    public boolean isGrouped() {
-        return isGrouped;
-    }
-
-
-    public void addTreeModelListener(TreeModelListener listener) {
-        listeners.add(TreeModelListener.class, listener);
-    }
-
-    public void removeTreeModelListener(TreeModelListener listener) {
-        listeners.remove(TreeModelListener.class, listener);
-    }
-
-    public void fireTreeNodesChanged(TreeModelEvent e) {
-        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
-            listener.treeNodesChanged(e);
-        }
-    }
-
-    public void fireTreeNodesInserted(TreeModelEvent e) {
-        try {
-            for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
-                listener.treeNodesInserted(e);
-            }
-        }catch (Exception ignored){
-
-        }
-    }
-
-    public void fireTreeNodesRemoved(TreeModelEvent e) {
-        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
-            listener.treeNodesRemoved(e);
-        }
-    }
-
-    public void fireTreeStructureChanged(TreeModelEvent e) {
-        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
-            listener.treeStructureChanged(e);
-        }
-    }
-
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.ui.tree;
+
+import org.dubik.tasks.model.*;
+import org.dubik.tasks.model.impl.Task;
+import org.dubik.tasks.model.impl.TaskBucketIndex;
+import org.dubik.tasks.model.impl.TaskGroup;
+import org.dubik.tasks.ui.groupings.PriorityGrouping;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Task tree model. Feeds tree with the data.
+ *
+ * @author Sergiy Dubovik
+ */
+public class TaskTreeModel implements TreeModel, ITaskModelChangeListener {
+    private static final ITaskFilter ACCEPT_ALL_FILTER = new ITaskFilter() {
+        public boolean accept(@NotNull ITask task) {
+            return true;
+        }
+    };
+
+    private EventListenerList listeners = new EventListenerList();
+    private TaskGroup root;
+    private ITaskModel taskModel;
+    private ITaskFilter taskFilter;
+
+    // members of the groups, when tasks are grouped
+    private TaskBucketIndex<?> bucketIndex;
+
+    // positions of the children accepted by task filter, built lazily per parent node;
+    // without a filter only children being updated by a batch are kept here
+    private Map<ITask, int[]> filteredChildren = new IdentityHashMap<ITask, int[]>();
+
+    // paths to tasks regardless of task filter, kept until the task is moved or deleted
+    private Map<ITask, TreePath> paths = new IdentityHashMap<ITask, TreePath>();
+    private TreePath rootPath;
+
+    // state of the task as it was reported by the last pre change/delete event
+    private ITask preChangeTask;
+    private TreePath preChangePath;
+    private int preChangeIndex;
+
+    // visibility of the ancestors of the task as it was reported by the last pre event
+    private ITask preAncestorsParent;
+    private boolean[] preAncestorsVisible;
+
+    // position of the top level task of a sub task reported by the last pre event, when tasks are grouped
+    private ITask preTopLevelTask;
+    private TreePath preTopLevelPath;
+    private int preTopLevelIndex;
+
+    public TaskTreeModel(ITaskModel taskModel) {
+        this.taskModel = taskModel;
+
+        taskModel.addChangeListener(this);
+
+        root = new TaskGroup("All Tasks");
+        root.setTaskModel(taskModel);
+        rootPath = new TreePath(root);
+    }
+
+    public Object getRoot() {
+        return root;
+    }
+
+    public Object getChild(Object parent, int index) {
+        ITask task;
+
+        if (parent == null) {
+            task = root;
+        }
+        else {
+            task = (ITask) parent;
+        }
+
+        if (hasFilteredChildren(task)) {
+            int[] positions = getFilteredChildren(task);
+            if (index >= 0 && index < positions.length) {
+                return task.get(positions[index]);
+            }
+        }
+        else {
+            return task.get(index);
+        }
+
+        return null;
+    }
+
+    public int getChildCount(Object parent) {
+        int size = 0;
+        ITask task = null;
+
+        if (parent == null) {
+            task = root;
+        }
+        if (parent instanceof ITask) {
+            task = (ITask) parent;
+        }
+
+        if (hasFilteredChildren(task)) {
+            size = getFilteredChildren(task).length;
+        }
+        else {
+            size = task.size();
+        }
+
+        return size;
+    }
+
+    public boolean isLeaf(Object node) {
+        return getChildCount(node) == 0;
+    }
+
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        if (!isGrouped() && getTaskFilter() == null && path.getLastPathComponent() instanceof Task) {
+            Task task = (Task) path.getLastPathComponent();
+            if (!task.getTitle().equals(newValue)) {
+                //rename through the model, so all its listeners know about it
+                taskModel.updateTask(task, task.getParent(), (String) newValue, task.getDescription(),
+                                     task.getPriority(), task.getEstimatedTime());
+            }
+        }
+    }
+
+    public int getIndexOfChild(Object parent, Object child) {
+        if (!(parent instanceof ITask) || !(child instanceof ITask)) {
+            return -1;
+        }
+
+        ITask task = (ITask) parent;
+        int index = task.indexOf((ITask) child);
+        if (index == -1) {
+            //parent can't tell the position, e.g. a filtered task group
+            for (int i = 0; i < task.size() && index == -1; i++) {
+                if (task.get(i) == child) {
+                    index = i;
+                }
+            }
+        }
+
+        if (index == -1 || !hasFilteredChildren(task)) {
+            return index;
+        }
+
+        int filteredIndex = Arrays.binarySearch(getFilteredChildren(task), index);
+        return filteredIndex < 0 ? -1 : filteredIndex;
+    }
+
+    /**
+     * Sets task filter. Tree is told only about the tasks which are shown or hidden
+     * by the new filter, so expanded and selected tasks which stay in the tree are kept.
+     *
+     * @param taskFilter new task filter, <code>null</code> to show all tasks
+     */
+    public void setTaskFilter(ITaskFilter taskFilter) {
+        ITaskFilter oldFilter = this.taskFilter;
+        Map<ITask, int[]> newFilteredChildren = new IdentityHashMap<ITask, int[]>();
+
+        //until the tree is told about the changes, nodes not visited yet are shown as before
+        this.taskFilter = oldFilter == null ? ACCEPT_ALL_FILTER : oldFilter;
+        filteredChildren.clear();
+        refilter(rootPath, oldFilter, taskFilter, newFilteredChildren);
+
+        this.taskFilter = taskFilter;
+        filteredChildren.clear();
+        if (taskFilter != null) {
+            filteredChildren.putAll(newFilteredChildren);
+        }
+    }
+
+    public ITaskFilter getTaskFilter() {
+        return taskFilter;
+    }
+
+    /**
+     * Tells the tree which children of the shown parent are hidden and which are shown
+     * by the new filter, then does the same for the children shown by both filters.
+     * Positions of the children accepted by the new filter are put into the cache
+     * before the tree asks for them.
+     *
+     * @param parentPath          path to a parent shown by both filters
+     * @param oldFilter           previous filter or <code>null</code>
+     * @param newFilter           new filter or <code>null</code>
+     * @param newFilteredChildren positions of the children accepted by the new filter
+     */
+    private void refilter(TreePath parentPath, ITaskFilter oldFilter, ITaskFilter newFilter,
+                          Map<ITask, int[]> newFilteredChildren) {
+        ITask parent = (ITask) parentPath.getLastPathComponent();
+        int size = parent.size();
+
+        int[] keptPositions = new int[size];
+        int[] removedIndices = new int[size];
+        Object[] removedChildren = new Object[size];
+        int[] insertedIndices = new int[size];
+        Object[] insertedChildren = new Object[size];
+        int kept = 0, removed = 0, inserted = 0, oldIndex = 0, newIndex = 0;
+        for (int i = 0; i < size; i++) {
+            ITask child = parent.get(i);
+            boolean oldAccepted = oldFilter == null || oldFilter.accept(child);
+            boolean newAccepted = newFilter == null || newFilter.accept(child);
+            if (oldAccepted && newAccepted) {
+                keptPositions[kept++] = i;
+            }
+            else if (oldAccepted) {
+                removedIndices[removed] = oldIndex;
+                removedChildren[removed++] = child;
+            }
+            else if (newAccepted) {
+                insertedIndices[inserted] = newIndex;
+                insertedChildren[inserted++] = child;
+            }
+
+            oldIndex += oldAccepted ? 1 : 0;
+            newIndex += newAccepted ? 1 : 0;
+        }
+
+        if (removed > 0) {
+            filteredChildren.put(parent, Arrays.copyOf(keptPositions, kept));
+            fireTreeNodesRemoved(new TreeModelEvent(this, parentPath, Arrays.copyOf(removedIndices, removed),
+                                                    Arrays.copyOf(removedChildren, removed)));
+        }
+
+        int[] newPositions = getAcceptedPositions(parent, newFilter);
+        filteredChildren.put(parent, newPositions);
+        newFilteredChildren.put(parent, newPositions);
+        if (inserted > 0) {
+            for (int i = 0; i < inserted; i++) {
+                ITask child = (ITask) insertedChildren[i];
+                int[] childPositions = getAcceptedPositions(child, newFilter);
+                filteredChildren.put(child, childPositions);
+                newFilteredChildren.put(child, childPositions);
+            }
+
+            fireTreeNodesInserted(new TreeModelEvent(this, parentPath, Arrays.copyOf(insertedIndices, inserted),
+                                                     Arrays.copyOf(insertedChildren, inserted)));
+        }
+
+        for (int i = 0; i < kept; i++) {
+            refilter(parentPath.pathByAddingChild(parent.get(keptPositions[i])), oldFilter, newFilter,
+                     newFilteredChildren);
+        }
+    }
+
+    public void handleAddTaskEvent(TaskChangeEvent event) {
+        if (bucketIndex != null) {
+            int group = getGroupOfTopLevelTask(event.getParent());
+            bucketIndex.handleAddTaskEvent(event);
+            if (isGroupChanged(event.getParent(), group)) {
+                return;
+            }
+        }
+
+        ITask task = event.getTask();
+        invalidateFilteredChildren(event.getParent());
+
+        TreePath path = getPathToObject(task);
+        if (path == null) {
+            //task is filtered out, but it can change visibility of its parents
+            TreePath changedPath = getVisibleAncestorPath(task.getParent());
+            fireTreeStructureChanged(new TreeModelEvent(this, changedPath));
+            fireAncestorsChanged(event, changedPath, changedPath);
+            return;
+        }
+
+        TreePath parentPath = path.getParentPath();
+        int index = getIndexOfChild(parentPath.getLastPathComponent(), task);
+        TreeModelEvent treeModelEvent = new TreeModelEvent(this, parentPath, new int[]{index}, new Object[]{task});
+        if (getChildCount(getRoot()) == 1 ) {
+            fireTreeStructureChanged(treeModelEvent);
+            fireAncestorsChanged(event, parentPath, parentPath);
+        }
+        else {
+            fireTreeNodesInserted(treeModelEvent);
+            fireAncestorsChanged(event, parentPath, null);
+        }
+    }
+
+    public void handlePreAddTaskEvent(TaskChangeEvent event) {
+        rememberAncestors(event);
+    }
+
+    public void handlePreDeleteTaskEvent(TaskChangeEvent event) {
+        rememberPreChangeState(event.getTask());
+        rememberAncestors(event);
+    }
+
+    public void handleDeleteTaskEvent(TaskChangeEvent event) {
+        if (bucketIndex != null) {
+            int group = getGroupOfTopLevelTask(event.getParent());
+            bucketIndex.handleDeleteTaskEvent(event);
+            if (isGroupChanged(event.getParent(), group)) {
+                return;
+            }
+        }
+
+        ITask task = event.getTask();
+        ITask parent = event.getParent();
+
+        TreePath parentPath;
+        int index;
+        boolean wasVisible = true;
+        if (preChangeTask == task) {
+            wasVisible = preChangePath != null;
+            parentPath = preChangePath == null ? null : preChangePath.getParentPath();
+            index = preChangeIndex;
+        }
+        else {
+            parentPath = parent == null ? rootPath : getPathToObject(parent);
+            index = event.getIndex();
+        }
+        preChangeTask = null;
+        preChangePath = null;
+
+        invalidateFilteredChildren(parent);
+        forgetFilteredChildren(task);
+        forgetPaths(task);
+
+        if (parentPath != null && index >= 0) {
+            fireTreeNodesRemoved(new TreeModelEvent(this, parentPath, new int[]{index}, new Object[]{task}));
+            fireAncestorsChanged(event, getVisibleAncestorPath(parentPath), null);
+        }
+        else if (parentPath != null && wasVisible) {
+            //position of the task couldn't be resolved anymore, e.g. it doesn't match its group
+            TreePath changedPath = getVisibleAncestorPath(parentPath);
+            fireTreeStructureChanged(new TreeModelEvent(this, changedPath));
+            fireAncestorsChanged(event, changedPath, changedPath);
+        }
+        else {
+            fireAncestorsChanged(event, getVisibleAncestorPath(parent), null);
+        }
+    }
+
+    public void handlePreChangeTaskEvent(TaskChangeEvent event) {
+        rememberPreChangeState(event.getTask());
+        rememberAncestors(event);
+    }
+
+    public void handleChangeTaskEvent(TaskChangeEvent event) {
+        if (bucketIndex != null) {
+            int group = getGroupOfTopLevelTask(event.getTask().getParent());
+            bucketIndex.handleChangeTaskEvent(event);
+            if (isGroupChanged(event.getTask().getParent(), group)) {
+                return;
+            }
+        }
+
+        ITask task = event.getTask();
+        invalidateFilteredChildren(task.getParent());
+        if (bucketIndex != null && task.getParent() == null) {
+            //group of a top level task depends on its properties
+            forgetPaths(task);
+        }
+
+        TreePath path = getPathToObject(task);
+        TreePath oldPath = preChangeTask == task ? preChangePath : path;
+        preChangeTask = null;
+        preChangePath = null;
+
+        if (path != null && oldPath != null && path.equals(oldPath)) {
+            TreePath parentPath = path.getParentPath();
+            int index = getIndexOfChild(parentPath.getLastPathComponent(), task);
+            fireTreeNodesChanged(new TreeModelEvent(this, parentPath, new int[]{index}, new Object[]{task}));
+            fireAncestorsChanged(event, parentPath, null);
+        }
+        else if (path != null && oldPath != null) {
+            //top level task has moved to another group
+            fireTopLevelTaskMoved(task, oldPath, preChangeIndex);
+        }
+        else if (path != null || oldPath != null) {
+            //task was shown or hidden by the change
+            TreePath changedPath = path == null ? getVisibleAncestorPath(oldPath.getParentPath()) : path.getParentPath();
+
+            fireTreeStructureChanged(new TreeModelEvent(this, changedPath));
+            fireAncestorsChanged(event, changedPath, changedPath);
+        }
+        else {
+            fireAncestorsChanged(event, getVisibleAncestorPath(task.getParent()), null);
+        }
+    }
+
+    /**
+     * Tells the tree which children of the changed parent were removed and inserted by
+     * a batch, so expanded and selected tasks which stay in the tree are kept. When tasks
+     * are grouped, a batch could move top level tasks to other groups, so the children of
+     * every group are updated too.
+     *
+     * @param event structure change event
+     */
+    public void handleStructureChangeEvent(TaskChangeEvent event) {
+        List<List<ITask>> previousMembers = null;
+        if (bucketIndex != null) {
+            previousMembers = getGroupMembers();
+            bucketIndex.handleStructureChangeEvent(event);
+        }
+
+        //moved tasks have other paths now, shown children are updated below
+        paths.clear();
+        preChangeTask = null;
+        preChangePath = null;
+        preAncestorsParent = null;
+        preAncestorsVisible = null;
+
+        ITask parent = event.getParent();
+        Set<ITask> changedTasks = Collections.newSetFromMap(new IdentityHashMap<ITask, Boolean>());
+        changedTasks.addAll(event.getChangedTasks());
+
+        if (previousMembers != null) {
+            Set<ITask> changedMembers = parent == null ? changedTasks : Collections.<ITask>emptySet();
+            for (int i = 0; i < root.size(); i++) {
+                TreePath groupPath = rootPath.pathByAddingChild(root.get(i));
+                if (updateChildren(groupPath, previousMembers.get(i), changedMembers)) {
+                    fireNodeChanged(groupPath);
+                }
+            }
+        }
+        else if (parent == null) {
+            updateChildren(rootPath, event.getPreviousChildren(), changedTasks);
+        }
+
+        if (parent != null) {
+            TreePath parentPath = getPathToObject(parent);
+            if (parentPath != null) {
+                updateChildren(parentPath, event.getPreviousChildren(), changedTasks);
+            }
+            else {
+                filteredChildren.remove(parent);
+            }
+            updateAncestors(parent);
+        }
+    }
+
+    /**
+     * Tells the tree how the shown children of a parent changed by a batch differ from
+     * the ones shown before. The longest run of children which kept their order stays
+     * in the tree, the other children are removed and inserted.
+     *
+     * @param parentPath       path to the parent shown in the tree
+     * @param previousChildren children of the parent before the batch
+     * @param changedTasks     children changed by the batch
+     * @return <code>true</code> if any child was removed, inserted or changed
+     */
+    private boolean updateChildren(TreePath parentPath, List<ITask> previousChildren, Set<ITask> changedTasks) {
+        ITask parent = (ITask) parentPath.getLastPathComponent();
+
+        List<ITask> oldChildren = getPreviouslyShownChildren(parent, previousChildren);
+        int[] newPositions = getAcceptedPositions(parent, taskFilter);
+        List<ITask> newChildren = new ArrayList<ITask>(newPositions.length);
+        for (int position : newPositions) {
+            newChildren.add(parent.get(position));
+        }
+
+        boolean[] keptOld = new boolean[oldChildren.size()];
+        boolean[] keptNew = findKeptChildren(oldChildren, newChildren, keptOld);
+
+        int[] keptPositions = new int[newChildren.size()];
+        int[] removedIndices = new int[oldChildren.size()];
+        Object[] removedChildren = new Object[oldChildren.size()];
+        int kept = 0, removed = 0;
+        for (int i = 0; i < oldChildren.size(); i++) {
+            if (!keptOld[i]) {
+                ITask child = oldChildren.get(i);
+                removedIndices[removed] = i;
+                removedChildren[removed++] = child;
+                if (taskModel.findTask(child.getId()) != child) {
+                    forgetFilteredChildren(child);
+                }
+            }
+        }
+
+        int[] insertedIndices = new int[newChildren.size()];
+        Object[] insertedChildren = new Object[newChildren.size()];
+        int[] changedIndices = new int[newChildren.size()];
+        Object[] changedChildren = new Object[newChildren.size()];
+        int inserted = 0, changed = 0;
+        for (int i = 0; i < newChildren.size(); i++) {
+            ITask child = newChildren.get(i);
+            if (keptNew[i]) {
+                keptPositions[kept++] = newPositions[i];
+                if (changedTasks.contains(child)) {
+                    changedIndices[changed] = i;
+                    changedChildren[changed++] = child;
+                }
+            }
+            else {
+                insertedIndices[inserted] = i;
+                insertedChildren[inserted++] = child;
+            }
+        }
+
+        if (removed > 0) {
+            //until the inserted children are told about, only the kept ones are shown
+            filteredChildren.put(parent, Arrays.copyOf(keptPositions, kept));
+            fireTreeNodesRemoved(new TreeModelEvent(this, parentPath, Arrays.copyOf(removedIndices, removed),
+                                                    Arrays.copyOf(removedChildren, removed)));
+        }
+
+        if (taskFilter != null) {
+            filteredChildren.put(parent, newPositions);
+        }
+        else {
+            filteredChildren.remove(parent);
+        }
+
+        if (inserted > 0) {
+            TreeModelEvent treeModelEvent = new TreeModelEvent(this, parentPath, Arrays.copyOf(insertedIndices, inserted),
+                                                               Arrays.copyOf(insertedChildren, inserted));
+            if (parent == root && kept == 0) {
+                //tree doesn't show children inserted into an empty root
+                fireTreeStructureChanged(treeModelEvent);
+            }
+            else {
+                fireTreeNodesInserted(treeModelEvent);
+            }
+        }
+
+        if (changed > 0) {
+            fireTreeNodesChanged(new TreeModelEvent(this, parentPath, Arrays.copyOf(changedIndices, changed),
+                                                    Arrays.copyOf(changedChildren, changed)));
+        }
+
+        return removed > 0 || inserted > 0 || changed > 0;
+    }
+
+    /**
+     * Returns children of the parent, which the tree has been shown before a batch.
+     * Positions of the shown children are cached for every parent the tree has asked
+     * about, for others they are found by the task filter.
+     *
+     * @param parent           parent changed by the batch
+     * @param previousChildren children of the parent before the batch
+     * @return previously shown children
+     */
+    private List<ITask> getPreviouslyShownChildren(ITask parent, List<ITask> previousChildren) {
+        int[] positions = filteredChildren.get(parent);
+        if (positions != null && positions.length > 0 && positions[positions.length - 1] >= previousChildren.size()) {
+            //positions were taken after the batch, e.g. by the tree showing a just inserted parent
+            positions = null;
+        }
+
+        if (positions == null && taskFilter == null) {
+            return previousChildren;
+        }
+
+        List<ITask> children = new ArrayList<ITask>(previousChildren.size());
+        if (positions != null) {
+            for (int position : positions) {
+                children.add(previousChildren.get(position));
+            }
+        }
+        else {
+            for (ITask child : previousChildren) {
+                if (taskFilter.accept(child)) {
+                    children.add(child);
+                }
+            }
+        }
+
+        return children;
+    }
+
+    /**
+     * Finds the longest run of children, which are shown both before and after a change
+     * in the same order.
+     *
+     * @param oldChildren children shown before
+     * @param newChildren children shown after
+     * @param keptOld     flags of the kept old children, filled by the method
+     * @return flags of the kept new children
+     */
+    private static boolean[] findKeptChildren(List<ITask> oldChildren, List<ITask> newChildren, boolean[] keptOld) {
+        Map<ITask, Integer> oldIndices = new IdentityHashMap<ITask, Integer>();
+        for (int i = 0; i < oldChildren.size(); i++) {
+            oldIndices.put(oldChildren.get(i), i);
+        }
+
+        //longest increasing run of old indices, ends[k] is the new index ending the best run of length k + 1
+        int size = newChildren.size();
+        int[] oldIndexOf = new int[size];
+        int[] previous = new int[size];
+        int[] ends = new int[size];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            Integer oldIndex = oldIndices.get(newChildren.get(i));
+            if (oldIndex == null) {
+                continue;
+            }
+
+            oldIndexOf[i] = oldIndex;
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (oldIndexOf[ends[middle]] < oldIndex) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+
+            previous[i] = low > 0 ? ends[low - 1] : -1;
+            ends[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] keptNew = new boolean[size];
+        for (int i = length > 0 ? ends[length - 1] : -1; i != -1; i = previous[i]) {
+            keptNew[i] = true;
+            keptOld[oldIndexOf[i]] = true;
+        }
+
+        return keptNew;
+    }
+
+    /**
+     * Tells the tree about the ancestors of a parent changed by a batch. Their values
+     * are rolled up from the sub tasks and the task filter could show or hide them now.
+     *
+     * @param parent parent changed by the batch
+     */
+    private void updateAncestors(ITask parent) {
+        for (TreePath path = findStructuralPath(parent); path != null && path.getParentPath() != null;
+             path = path.getParentPath()) {
+            TreePath parentPath = path.getParentPath();
+            if (!isAccepted(parentPath)) {
+                continue;
+            }
+
+            ITask node = (ITask) path.getLastPathComponent();
+            ITask nodeParent = (ITask) parentPath.getLastPathComponent();
+            int position = nodeParent.indexOf(node);
+            int[] oldPositions = taskFilter == null ? null : filteredChildren.get(nodeParent);
+            if (oldPositions == null || position == -1) {
+                //the tree hasn't asked about the children or the filter can't hide any
+                fireNodeChanged(path);
+                continue;
+            }
+
+            int oldIndex = Arrays.binarySearch(oldPositions, position);
+            boolean shown = taskFilter.accept(node);
+            if (oldIndex >= 0 && shown) {
+                fireTreeNodesChanged(new TreeModelEvent(this, parentPath, new int[]{oldIndex}, new Object[]{node}));
+            }
+            else if (oldIndex >= 0 || shown) {
+                //other children could be shown or hidden too, the tree is told about them by their own events
+                int index = oldIndex >= 0 ? oldIndex : -oldIndex - 1;
+                int[] newPositions = new int[oldPositions.length + (oldIndex >= 0 ? -1 : 1)];
+                System.arraycopy(oldPositions, 0, newPositions, 0, index);
+                if (oldIndex >= 0) {
+                    System.arraycopy(oldPositions, index + 1, newPositions, index, newPositions.length - index);
+                }
+                else {
+                    newPositions[index] = position;
+                    System.arraycopy(oldPositions, index, newPositions, index + 1, oldPositions.length - index);
+                }
+                filteredChildren.put(nodeParent, newPositions);
+
+                TreeModelEvent treeModelEvent = new TreeModelEvent(this, parentPath, new int[]{index}, new Object[]{node});
+                if (oldIndex >= 0) {
+                    fireTreeNodesRemoved(treeModelEvent);
+                }
+                else if (nodeParent == root && oldPositions.length == 0) {
+                    fireTreeStructureChanged(treeModelEvent);
+                }
+                else {
+                    fireTreeNodesInserted(treeModelEvent);
+                }
+            }
+        }
+    }
+
+    private void fireNodeChanged(TreePath path) {
+        Object node = path.getLastPathComponent();
+        TreePath parentPath = path.getParentPath();
+        int index = getIndexOfChild(parentPath.getLastPathComponent(), node);
+        if (index != -1) {
+            fireTreeNodesChanged(new TreeModelEvent(this, parentPath, new int[]{index}, new Object[]{node}));
+        }
+    }
+
+    private List<List<ITask>> getGroupMembers() {
+        List<List<ITask>> members = new ArrayList<List<ITask>>(root.size());
+        for (int i = 0; i < root.size(); i++) {
+            ITask group = root.get(i);
+            List<ITask> groupMembers = new ArrayList<ITask>(group.size());
+            for (int j = 0; j < group.size(); j++) {
+                groupMembers.add(group.get(j));
+            }
+            members.add(groupMembers);
+        }
+
+        return members;
+    }
+
+    /**
+     * Returns path to specified object, including the object itself. Paths are built
+     * from parent references of the tasks and cached, so looking up a path doesn't
+     * search the tree.
+     *
+     * @param obj a task, a task group or the root
+     * @return path to the object or <code>null</code> if object is not shown in the tree
+     */
+    public TreePath getPathToObject(Object obj) {
+        if (obj == root) {
+            return rootPath;
+        }
+
+        TreePath path = findStructuralPath(obj);
+        if (path == null || !isAccepted(path)) {
+            return null;
+        }
+
+        return path;
+    }
+
+    /**
+     * Returns path to the parent of specified object.
+     *
+     * @param root root of the tree
+     * @param task object to look for
+     * @return components of the path to the parent or an empty array if object is not shown in the tree
+     */
+    public Object[] findPathToObject(Object root, Object task) {
+        TreePath path = getPathToObject(task);
+        if (path == null || path.getParentPath() == null) {
+            return new Object[0];
+        }
+
+        return path.getParentPath().getPath();
+    }
+
+    private TreePath findStructuralPath(Object obj) {
+        if (obj == root) {
+            return rootPath;
+        }
+
+        if (!(obj instanceof ITask)) {
+            return null;
+        }
+
+        ITask task = (ITask) obj;
+        TreePath path = paths.get(task);
+        if (path == null) {
+            TreePath parentPath = null;
+            if (task instanceof ITaskGroup) {
+                if (root.indexOf(task) != -1) {
+                    parentPath = rootPath;
+                }
+            }
+            else if (task.getParent() != null) {
+                if (task.getParent().indexOf(task) != -1) {
+                    parentPath = findStructuralPath(task.getParent());
+                }
+            }
+            else if (taskModel.indexOf(task) != -1) {
+                parentPath = findTopLevelParentPath(task);
+            }
+
+            if (parentPath == null) {
+                return null;
+            }
+
+            path = parentPath.pathByAddingChild(task);
+            paths.put(task, path);
+        }
+
+        return path;
+    }
+
+    private TreePath findTopLevelParentPath(ITask task) {
+        if (bucketIndex == null) {
+            return rootPath;
+        }
+
+        for (int i = 0; i < root.size(); i++) {
+            ITaskGroup group = (ITaskGroup) root.get(i);
+            if (group.contains(task)) {
+                return rootPath.pathByAddingChild(group);
+            }
+        }
+
+        return null;
+    }
+
+    private boolean isAccepted(TreePath path) {
+        if (taskFilter == null) {
+            return true;
+        }
+
+        for (TreePath p = path; p != null; p = p.getParentPath()) {
+            Object component = p.getLastPathComponent();
+            if (!(component instanceof ITaskGroup) && !taskFilter.accept((ITask) component)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns path to the closest task, starting from specified one, which is shown in the tree.
+     *
+     * @param task task to start from, <code>null</code> for the root
+     * @return path to the closest shown task, path to the root if there is none
+     */
+    private TreePath getVisibleAncestorPath(ITask task) {
+        for (ITask t = task; t != null; t = t.getParent()) {
+            TreePath path = getPathToObject(t);
+            if (path != null) {
+                return path;
+            }
+        }
+
+        return rootPath;
+    }
+
+    private TreePath getVisibleAncestorPath(TreePath path) {
+        for (TreePath p = path; p != null; p = p.getParentPath()) {
+            if (p.equals(getPathToObject(p.getLastPathComponent()))) {
+                return p;
+            }
+        }
+
+        return rootPath;
+    }
+
+    private void rememberPreChangeState(ITask task) {
+        preChangeTask = task;
+        preChangePath = getPathToObject(task);
+        preChangeIndex = preChangePath == null ? -1 : getIndexOfChild(preChangePath.getParentPath().getLastPathComponent(), task);
+    }
+
+    /**
+     * Remembers which ancestors of the task are shown, so a change of the task which
+     * shows or hides its parents can be told apart from a plain change of their values.
+     *
+     * @param event pre change, pre add or pre delete event
+     */
+    private void rememberAncestors(TaskChangeEvent event) {
+        ITask parent = event.getParent();
+        preTopLevelTask = bucketIndex == null || parent == null ? null : getTopLevelTask(parent);
+        preTopLevelPath = preTopLevelTask == null ? null : getPathToObject(preTopLevelTask);
+        preTopLevelIndex = preTopLevelPath == null ? -1
+                : getIndexOfChild(preTopLevelPath.getParentPath().getLastPathComponent(), preTopLevelTask);
+
+        preAncestorsParent = parent;
+        preAncestorsVisible = null;
+        if (taskFilter == null) {
+            return;
+        }
+
+        List<ITask> ancestors = event.getAncestors();
+        preAncestorsVisible = new boolean[ancestors.size()];
+        for (int i = 0; i < preAncestorsVisible.length; i++) {
+            preAncestorsVisible[i] = getPathToObject(ancestors.get(i)) != null;
+        }
+    }
+
+    /**
+     * Notifies about changed ancestors of the task from the event. Completion, time
+     * and priority of a parent are rolled up from its sub tasks, so every shown parent
+     * of a changed task, including its group, gets one nodes changed event. If a parent
+     * was shown or hidden by the change, the structure is changed below its parent instead.
+     *
+     * @param event       add, delete or change event
+     * @param parentPath  path to the closest shown parent of the task
+     * @param updatedPath path which structure has been already changed or <code>null</code>
+     */
+    private void fireAncestorsChanged(TaskChangeEvent event, TreePath parentPath, TreePath updatedPath) {
+        boolean[] visible = preAncestorsParent == event.getParent() ? preAncestorsVisible : null;
+        preAncestorsParent = null;
+        preAncestorsVisible = null;
+
+        if (visible != null) {
+            List<ITask> ancestors = event.getAncestors();
+            for (int i = visible.length - 1; i >= 0; i--) {
+                if (visible[i] != (getPathToObject(ancestors.get(i)) != null)) {
+                    parentPath = getVisibleAncestorPath(ancestors.get(i).getParent());
+                    if (updatedPath == null || !updatedPath.isDescendant(parentPath)) {
+                        fireTreeStructureChanged(new TreeModelEvent(this, parentPath));
+                        updatedPath = parentPath;
+                    }
+                    break;
+                }
+            }
+        }
+
+        for (TreePath path = parentPath; path.getParentPath() != null; path = path.getParentPath()) {
+            if (updatedPath == null || !updatedPath.isDescendant(path)) {
+                Object node = path.getLastPathComponent();
+                TreePath nodeParentPath = path.getParentPath();
+                int index = getIndexOfChild(nodeParentPath.getLastPathComponent(), node);
+                if (index != -1) {
+                    fireTreeNodesChanged(new TreeModelEvent(this, nodeParentPath, new int[]{index}, new Object[]{node}));
+                }
+            }
+        }
+    }
+
+    private void forgetPaths(ITask task) {
+        if (paths.remove(task) != null) {
+            for (int i = 0; i < task.size(); i++) {
+                forgetPaths(task.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns positions of the children of specified task, which are accepted by
+     * current task filter. Positions are calculated once and kept until
+     * a change in the model invalidates them.
+     *
+     * @param task parent task
+     * @return sorted positions of visible children
+     */
+    private boolean hasFilteredChildren(ITask task) {
+        return taskFilter != null || filteredChildren.containsKey(task);
+    }
+
+    private int[] getFilteredChildren(ITask task) {
+        int[] positions = filteredChildren.get(task);
+        if (positions == null) {
+            positions = getAcceptedPositions(task, taskFilter);
+            filteredChildren.put(task, positions);
+        }
+
+        return positions;
+    }
+
+    private static int[] getAcceptedPositions(ITask task, ITaskFilter filter) {
+        int size = task.size();
+        int[] positions = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter == null || filter.accept(task.get(i))) {
+                positions[count++] = i;
+            }
+        }
+
+        return count != size ? Arrays.copyOf(positions, count) : positions;
+    }
+
+    /**
+     * Drops cached filtered children of specified task and all its parents, since
+     * a change of a sub task can change whether its parents are accepted
+     * by the filter (e.g. completion).
+     *
+     * @param parent parent of the changed task, <code>null</code> for top level tasks
+     */
+    private void invalidateFilteredChildren(ITask parent) {
+        if (filteredChildren.isEmpty()) {
+            return;
+        }
+
+        for (ITask task = parent; task != null; task = task.getParent()) {
+            filteredChildren.remove(task);
+        }
+
+        filteredChildren.remove(root);
+        if (bucketIndex != null) {
+            for (int i = 0; i < root.size(); i++) {
+                filteredChildren.remove(root.get(i));
+            }
+        }
+    }
+
+    private void forgetFilteredChildren(ITask task) {
+        if (filteredChildren.isEmpty()) {
+            return;
+        }
+
+        filteredChildren.remove(task);
+        for (int i = 0; i < task.size(); i++) {
+            forgetFilteredChildren(task.get(i));
+        }
+    }
+
+    /**
+     * Returns group of the top level task, which specified task belongs to.
+     *
+     * @param task a task, <code>null</code> for the top level
+     * @return index of the group or -1 if the task is <code>null</code>
+     */
+    private int getGroupOfTopLevelTask(ITask task) {
+        if (task == null) {
+            return -1;
+        }
+
+        return bucketIndex.bucketOf(getTopLevelTask(task));
+    }
+
+    private static ITask getTopLevelTask(ITask task) {
+        ITask topLevelTask = task;
+        while (topLevelTask.getParent() != null) {
+            topLevelTask = topLevelTask.getParent();
+        }
+
+        return topLevelTask;
+    }
+
+    /**
+     * Checks whether a change of the sub tasks has moved their top level task to another
+     * group, e.g. completion of the last incomplete sub task. The top level task is
+     * removed from the old group and inserted into the new one then, which also shows
+     * the changed sub task.
+     *
+     * @param task  parent of the changed sub task, <code>null</code> for the top level
+     * @param group group of the top level task before the change
+     * @return <code>true</code> if the group has changed
+     */
+    private boolean isGroupChanged(ITask task, int group) {
+        if (task == null || getGroupOfTopLevelTask(task) == group) {
+            return false;
+        }
+
+        ITask topLevelTask = getTopLevelTask(task);
+        boolean remembered = preTopLevelTask == topLevelTask;
+        TreePath oldPath = preTopLevelPath;
+        int oldIndex = preTopLevelIndex;
+        preTopLevelTask = null;
+        preTopLevelPath = null;
+        preChangeTask = null;
+        preChangePath = null;
+        preAncestorsParent = null;
+        preAncestorsVisible = null;
+
+        invalidateFilteredChildren(task);
+        forgetPaths(topLevelTask);
+
+        if (!remembered && group != -1) {
+            //position in the old group is unknown, e.g. the change had no pre event
+            fireTreeStructureChanged(new TreeModelEvent(this, rootPath.pathByAddingChild(root.get(group))));
+        }
+        fireTopLevelTaskMoved(topLevelTask, remembered ? oldPath : null, oldIndex);
+
+        return true;
+    }
+
+    /**
+     * Tells the tree that a top level task has moved to another group. Both groups
+     * are changed too, since their values are rolled up from their tasks.
+     *
+     * @param task     top level task
+     * @param oldPath  path to the task in the old group or <code>null</code> if it wasn't shown
+     * @param oldIndex index of the task in the old group
+     */
+    private void fireTopLevelTaskMoved(ITask task, TreePath oldPath, int oldIndex) {
+        if (oldPath != null) {
+            TreePath oldGroupPath = oldPath.getParentPath();
+            fireTreeNodesRemoved(new TreeModelEvent(this, oldGroupPath, new int[]{oldIndex}, new Object[]{task}));
+            fireNodeChanged(oldGroupPath);
+        }
+
+        TreePath path = getPathToObject(task);
+        if (path != null) {
+            TreePath groupPath = path.getParentPath();
+            int index = getIndexOfChild(groupPath.getLastPathComponent(), task);
+            fireTreeNodesInserted(new TreeModelEvent(this, groupPath, new int[]{index}, new Object[]{task}));
+            fireNodeChanged(groupPath);
+        }
+    }
+
+    public void groupByPriority(boolean group) {
+        groupBy(group ? new PriorityGrouping() : null);
+    }
+
+    /**
+     * Groups top level tasks by specified grouping. The root is kept, the tree is told
+     * that its children were replaced, so the tree doesn't forget its root. Expanding
+     * and selecting the tasks again is up to the tree. Nothing changes if the tasks are
+     * already grouped the same way.
+     *
+     * @param grouping grouping of the tasks, <code>null</code> to show tasks without groups
+     */
+    public void groupBy(ITaskGrouping<?> grouping) {
+        ITaskGrouping<?> oldGrouping = getGrouping();
+        if (grouping == null ? oldGrouping == null : oldGrouping != null && grouping.getClass() == oldGrouping.getClass()) {
+            return;
+        }
+
+        fireRootChildrenChanged(false);
+
+        root.clear();
+        bucketIndex = null;
+        filteredChildren.clear();
+        paths.clear();
+        preChangeTask = null;
+        preChangePath = null;
+        preAncestorsParent = null;
+        preAncestorsVisible = null;
+
+        if (grouping != null) {
+            //groups are fed by the index, which is updated before the events are handled here
+            bucketIndex = createBucketIndex(grouping);
+
+            for (int i = 0; i < bucketIndex.getBucketCount(); i++) {
+                TaskGroup taskGroup = new TaskGroup(getGroupTitle(bucketIndex, i));
+                taskGroup.setTaskBucket(bucketIndex, i);
+
+                root.add(taskGroup);
+            }
+        }
+        else {
+            root.setTaskModel(taskModel);
+        }
+
+        fireRootChildrenChanged(true);
+    }
+
+    private void fireRootChildrenChanged(boolean inserted) {
+        int count = getChildCount(root);
+        if (count == 0) {
+            return;
+        }
+
+        int[] indices = new int[count];
+        Object[] children = new Object[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = i;
+            children[i] = getChild(root, i);
+        }
+
+        if (inserted) {
+            fireTreeNodesInserted(new TreeModelEvent(this, rootPath, indices, children));
+        }
+        else {
+            fireTreeNodesRemoved(new TreeModelEvent(this, rootPath, indices, children));
+        }
+    }
+
+    public boolean isGrouped() {
+        return bucketIndex != null;
+    }
+
+    public ITaskGrouping<?> getGrouping() {
+        return bucketIndex == null ? null : bucketIndex.getGrouping();
+    }
+
+    private <K> TaskBucketIndex<K> createBucketIndex(ITaskGrouping<K> grouping) {
+        return new TaskBucketIndex<K>(taskModel, grouping);
+    }
+
+    private static <K> String getGroupTitle(TaskBucketIndex<K> bucketIndex, int bucket) {
+        return bucketIndex.getGrouping().getTitle(bucketIndex.getKey(bucket));
+    }
+
+
+    public void addTreeModelListener(TreeModelListener listener) {
+        listeners.add(TreeModelListener.class, listener);
+    }
+
+    public void removeTreeModelListener(TreeModelListener listener) {
+        listeners.remove(TreeModelListener.class, listener);
+    }
+
+    public void fireTreeNodesChanged(TreeModelEvent e) {
+        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+            listener.treeNodesChanged(e);
+        }
+    }
+
+    public void fireTreeNodesInserted(TreeModelEvent e) {
+        try {
+            for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+                listener.treeNodesInserted(e);
+            }
+        }catch (Exception ignored){
+
+        }
+    }
+
+    public void fireTreeNodesRemoved(TreeModelEvent e) {
+        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+            listener.treeNodesRemoved(e);
+        }
+    }
+
+    public void fireTreeStructureChanged(TreeModelEvent e) {
+        for (TreeModelListener listener : listeners.getListeners(TreeModelListener.class)) {
+            listener.treeStructureChanged(e);
+        }
+    }
+
 }
\ No newline at end of file
@@ -29,8 +29,34 @@ public class TransferableTask implements Transferable {
 
     private List<ITask> tasks;
 
+    // dragged tasks and all their sub tasks, tasks can't be dropped on them
+    private Set<ITask> forbiddenTargets = Collections.newSetFromMap(new IdentityHashMap<ITask, Boolean>());
+
     public TransferableTask(List<ITask> tasks) {
         this.tasks = new ArrayList<>(tasks);
+
+        for (ITask task : tasks) {
+            addForbiddenTargets(task);
+        }
+    }
+
+    private void addForbiddenTargets(ITask task) {
+        if (forbiddenTargets.add(task)) {
+            for (int i = 0; i < task.size(); i++) {
+                addForbiddenTargets(task.get(i));
+            }
+        }
+    }
+
+    /**
+     * Checks whether dragged tasks can be dropped on specified task, i.e. it's neither
+     * a dragged task nor a sub task of one.
+     *
+     * @param task drop target
+     * @return <code>true</code> if tasks can be dropped on the task
+     */
+    public boolean canDropOn(ITask task) {
+        return !forbiddenTargets.contains(task);
     }
 
     public synchronized Object getTransferData(DataFlavor flavor) throws UnsupportedFlavorException {
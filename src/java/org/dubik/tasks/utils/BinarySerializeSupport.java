@@ -0,0 +1,288 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.utils;
+
+import com.intellij.openapi.util.InvalidDataException;
+import com.intellij.openapi.util.WriteExternalException;
+import org.dubik.tasks.model.*;
+import org.dubik.tasks.model.impl.TaskBuilder;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes binary snapshots of the tasks. Snapshot keeps the same values as
+ * {@link SerializeSupport}, but it can be loaded with one sequential pass and
+ * without parsing.
+ * <p/>
+ * Format: magic number, format version, generation of the snapshot, highest id given by
+ * the model, count of top level tasks and the tasks. Every task is stored as title,
+ * description, priority and highlighting type ordinals, flags, estimated, actual and
+ * creation time, id, count of sub tasks and the sub tasks. Strings are length prefixed UTF-8,
+ * numbers are varints.
+ */
+public class BinarySerializeSupport {
+    private static final int MAGIC = 0x5441534B; //TASK
+    static final int VERSION = 1;
+
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_HIGHLIGHTED = 1 << 1;
+    private static final int FLAG_HAS_DESCRIPTION = 1 << 2;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    static public void writeTasks(ITaskModel taskModel, File file, long generation) throws WriteExternalException {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+            try {
+                writeTasks(taskModel, out, generation);
+            }
+            finally {
+                out.close();
+            }
+
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            throw new WriteExternalException(e.getMessage());
+        }
+    }
+
+    static public void writeTasks(ITaskModel taskModel, DataOutputStream out, long generation) throws IOException {
+        out.writeInt(MAGIC);
+        writeVarLong(out, VERSION);
+        writeVarLong(out, generation);
+        writeVarLong(out, taskModel.getLastId());
+        writeVarLong(out, taskModel.size());
+        for (int i = 0; i < taskModel.size(); i++) {
+            writeTasksRecursively(out, taskModel.getTask(i));
+        }
+    }
+
+    static void writeTasksRecursively(DataOutputStream out, ITask task) throws IOException {
+        writeTask(out, task);
+        writeVarLong(out, task.size());
+        for (int i = 0; i < task.size(); i++) {
+            writeTasksRecursively(out, task.get(i));
+        }
+    }
+
+    /**
+     * Writes values of specified task, without its sub tasks.
+     */
+    static void writeTask(DataOutputStream out, ITask task) throws IOException {
+        String description = task.getDescription();
+        int flags = 0;
+        if (task.isCompleted()) {
+            flags |= FLAG_COMPLETED;
+        }
+        if (task.isHighlighted()) {
+            flags |= FLAG_HIGHLIGHTED;
+        }
+        if (description != null && description.length() != 0) {
+            flags |= FLAG_HAS_DESCRIPTION;
+        }
+
+        writeString(out, task.getTitle() == null ? "" : task.getTitle());
+        writeVarLong(out, flags);
+        if ((flags & FLAG_HAS_DESCRIPTION) != 0) {
+            writeString(out, description);
+        }
+        writeVarLong(out, task.getPriority().ordinal());
+        writeVarLong(out, task.getHighlightingType().ordinal());
+        writeVarLong(out, task.getEstimatedTime());
+        writeVarLong(out, task.getActualTime());
+        writeVarLong(out, task.getCreationTime());
+        writeVarLong(out, task.getId());
+    }
+
+    /**
+     * Reads snapshot into specified model. The snapshot is read into memory and decoded
+     * completely before the first task is added, so a broken or outdated snapshot
+     * leaves the model untouched. The file isn't mapped, a mapped file can't be replaced
+     * on Windows until the mapping is garbage collected.
+     *
+     * @param taskModel  task model
+     * @param file       snapshot file
+     * @param generation expected generation of the snapshot
+     * @throws InvalidDataException if snapshot can't be read or has different generation
+     */
+    static public void readTasks(ITaskModel taskModel, File file, long generation) throws InvalidDataException {
+        try {
+            FileInputStream in = new FileInputStream(file);
+            try {
+                FileChannel channel = in.getChannel();
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new InvalidDataException("tasks snapshot is too big");
+                }
+
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    //channel can return less than asked for
+                }
+                buffer.flip();
+
+                readTasks(taskModel, buffer, generation);
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (IOException e) {
+            throw new InvalidDataException(e.getMessage());
+        }
+    }
+
+    static public void readTasks(final ITaskModel taskModel, ByteBuffer buffer, long generation) throws InvalidDataException {
+        final List<ITask> tasks;
+        final long lastId;
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new InvalidDataException("not a tasks snapshot");
+            }
+            if (readVarLong(buffer) != VERSION) {
+                throw new InvalidDataException("unsupported tasks snapshot version");
+            }
+            if (readVarLong(buffer) != generation) {
+                throw new InvalidDataException("tasks snapshot is outdated");
+            }
+            lastId = readVarLong(buffer);
+
+            int count = readCount(buffer);
+            tasks = new ArrayList<ITask>(count);
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTasksRecursively(buffer));
+            }
+        }
+        catch (BufferUnderflowException e) {
+            throw new InvalidDataException("tasks snapshot is truncated");
+        }
+
+        //ids of deleted tasks are kept reserved
+        taskModel.reserveIds(lastId);
+        taskModel.runBatch(new Runnable() {
+            public void run() {
+                for (ITask task : tasks) {
+                    taskModel.addTask(null, task);
+                }
+            }
+        });
+    }
+
+    static ITask readTasksRecursively(ByteBuffer buffer) throws InvalidDataException {
+        ITask task = readTask(buffer);
+        int count = readCount(buffer);
+        for (int i = 0; i < count; i++) {
+            task.add(readTasksRecursively(buffer));
+        }
+
+        return task;
+    }
+
+    /**
+     * Reads values of a task written by {@link #writeTask(DataOutputStream, ITask)}.
+     */
+    static ITask readTask(ByteBuffer buffer) throws InvalidDataException {
+        String title = readString(buffer);
+        long flags = readVarLong(buffer);
+        String description = (flags & FLAG_HAS_DESCRIPTION) != 0 ? readString(buffer) : null;
+        TaskPriority priority = readEnum(buffer, TaskPriority.values(), TaskPriority.Normal);
+        TaskHighlightingType type = readEnum(buffer, TaskHighlightingType.values(), TaskHighlightingType.Red);
+
+        return new TaskBuilder()
+                .setTitle(title)
+                .setDescription(description)
+                .setPriority(priority)
+                .setHighlightingType(type)
+                .setCompleted((flags & FLAG_COMPLETED) != 0)
+                .setHighlighted((flags & FLAG_HIGHLIGHTED) != 0)
+                .setEstimatedTime(readVarLong(buffer))
+                .setActualTime(readVarLong(buffer))
+                .setCreationTime(readVarLong(buffer))
+                .setId(readVarLong(buffer))
+                .build();
+    }
+
+    static private <T> T readEnum(ByteBuffer buffer, T[] values, T defaultValue) throws InvalidDataException {
+        long ordinal = readVarLong(buffer);
+        if (ordinal < 0) {
+            throw new InvalidDataException("tasks snapshot is corrupted");
+        }
+
+        //values added by a newer version are read as the default
+        return ordinal < values.length ? values[(int) ordinal] : defaultValue;
+    }
+
+    static int readCount(ByteBuffer buffer) throws InvalidDataException {
+        long count = readVarLong(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            //every task takes at least one byte
+            throw new InvalidDataException("tasks snapshot is corrupted");
+        }
+
+        return (int) count;
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) throws InvalidDataException {
+        long length = readVarLong(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new InvalidDataException("tasks snapshot is corrupted");
+        }
+
+        byte[] bytes = new byte[(int) length];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Writes unsigned number using 7 bits per byte, high bit marks that more bytes follow.
+     */
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) throws InvalidDataException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new InvalidDataException("tasks snapshot is corrupted");
+    }
+}
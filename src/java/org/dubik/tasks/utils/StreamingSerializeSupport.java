@@ -0,0 +1,303 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.utils;
+
+import com.intellij.openapi.util.InvalidDataException;
+import com.intellij.openapi.util.WriteExternalException;
+import com.intellij.openapi.util.text.StringUtil;
+import org.dubik.tasks.model.*;
+import org.dubik.tasks.model.impl.TaskBuilder;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.dubik.tasks.utils.SerializeSupport.*;
+
+/**
+ * Reads and writes tasks directly between the model and a stream, without building
+ * a document of all tasks in memory. Uses the same <code>tasks</code>/<code>task</code>
+ * format as {@link SerializeSupport}.
+ */
+public class StreamingSerializeSupport {
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * Writes tasks to specified file.
+     *
+     * @param taskModel  task model
+     * @param file       file to write to
+     * @param generation generation of the store, written as an attribute of the tasks element
+     * @throws WriteExternalException if file can't be written
+     */
+    static public void writeTasks(ITaskModel taskModel, File file, long generation) throws WriteExternalException {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(tmpFile));
+            try {
+                writeTasks(taskModel, out, generation);
+            }
+            finally {
+                out.close();
+            }
+
+            //replace the old store only when the new one is completely written
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            throw new WriteExternalException(e.getMessage());
+        }
+    }
+
+    static public void writeTasks(ITaskModel taskModel, OutputStream out, long generation) throws WriteExternalException {
+        try {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, ENCODING);
+            writer.writeStartDocument(ENCODING, "1.0");
+            writer.writeStartElement(TASKS);
+            if (generation != 0) {
+                writer.writeAttribute(TASKS_GENERATION, Long.toString(generation));
+            }
+            writer.writeAttribute(TASKS_LAST_ID, Long.toString(taskModel.getLastId()));
+            for (int i = 0; i < taskModel.size(); i++) {
+                writeTasksRecursively(writer, taskModel.getTask(i));
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        }
+        catch (XMLStreamException e) {
+            throw new WriteExternalException(e.getMessage());
+        }
+    }
+
+    static private void writeTasksRecursively(XMLStreamWriter writer, ITask task) throws XMLStreamException {
+        if (task.size() == 0) {
+            writer.writeEmptyElement(TASK);
+            writeTaskAttributes(writer, task);
+        }
+        else {
+            writer.writeStartElement(TASK);
+            writeTaskAttributes(writer, task);
+            for (int i = 0; i < task.size(); i++) {
+                writeTasksRecursively(writer, task.get(i));
+            }
+            writer.writeEndElement();
+        }
+    }
+
+    static private void writeTaskAttributes(XMLStreamWriter writer, ITask task) throws XMLStreamException {
+        writer.writeAttribute(TASK_ID, Long.toString(task.getId()));
+        writer.writeAttribute(TASK_PRIORITY, task.getPriority().name());
+        writer.writeAttribute(TASK_COMPLETED, Boolean.toString(task.isCompleted()));
+        writer.writeAttribute(TASK_ESTIMATED, Long.toString(task.getEstimatedTime()));
+        writer.writeAttribute(TASK_CREATED, Long.toString(task.getCreationTime()));
+        writer.writeAttribute(TASK_ACTUAL, Long.toString(task.getActualTime()));
+        writer.writeAttribute(TASK_HIGHLIGHTED, Boolean.toString(task.isHighlighted()));
+        writer.writeAttribute(TASK_HIGHLIGHTING_TYPE, task.getHighlightingType().toString());
+        writer.writeAttribute(TASK_TITLE, task.getTitle());
+        writer.writeAttribute(TASK_DESCRIPTION, StringUtil.escapeXml(task.getDescription() == null ? "" : task.getDescription()));
+    }
+
+    /**
+     * Reads generation of the store written by {@link #writeTasks(ITaskModel, File, long)}.
+     * Only the beginning of the file is parsed.
+     *
+     * @param file store file
+     * @return generation of the store or 0 if it's unknown
+     */
+    static public long readGeneration(File file) {
+        try {
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && TASKS.equals(reader.getLocalName())) {
+                        return ExternalizeSupport.parseSafelyLong(reader.getAttributeValue(null, TASKS_GENERATION), 0);
+                    }
+                }
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (IOException e) {
+            return 0;
+        }
+        catch (XMLStreamException e) {
+            return 0;
+        }
+
+        return 0;
+    }
+
+    static public void readTasks(ITaskModel taskModel, File file) throws InvalidDataException {
+        try {
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try {
+                readTasks(taskModel, in);
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (IOException e) {
+            throw new InvalidDataException(e.getMessage());
+        }
+    }
+
+    static public void readTasks(final ITaskModel taskModel, InputStream in) throws InvalidDataException {
+        final XMLStreamException[] error = new XMLStreamException[1];
+        try {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            taskModel.runBatch(new Runnable() {
+                public void run() {
+                    try {
+                        readTasks(reader, taskModel);
+                    }
+                    catch (XMLStreamException e) {
+                        error[0] = e;
+                    }
+                }
+            });
+            reader.close();
+        }
+        catch (XMLStreamException e) {
+            error[0] = e;
+        }
+
+        if (error[0] != null) {
+            throw new InvalidDataException(error[0].getMessage());
+        }
+    }
+
+    static private void readTasks(XMLStreamReader reader, ITaskModel model) throws XMLStreamException {
+        //like the document based reader, every element inside of the tasks element is a task
+        Deque<PendingTask> openTasks = new ArrayDeque<PendingTask>();
+        boolean insideTasks = false;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (insideTasks) {
+                        ITask parent = openTasks.isEmpty() ? null : openTasks.peek().getTask(model);
+                        openTasks.push(new PendingTask(reader, parent));
+                    }
+                    else {
+                        insideTasks = TASKS.equals(reader.getLocalName());
+                        if (insideTasks) {
+                            //ids of deleted tasks are kept reserved
+                            model.reserveIds(ExternalizeSupport.parseSafelyLong(reader.getAttributeValue(null, TASKS_LAST_ID), 0));
+                        }
+                    }
+                    break;
+
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                    if (!openTasks.isEmpty()) {
+                        openTasks.peek().appendText(reader.getText());
+                    }
+                    break;
+
+                case XMLStreamConstants.END_ELEMENT:
+                    if (!openTasks.isEmpty()) {
+                        openTasks.pop().getTask(model);
+                    }
+                    else if (insideTasks) {
+                        return;
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Task element which has been started, but not added to the model yet. Old versions
+     * kept the title as the element text, so the task is created only when its text
+     * is complete, i.e. at its first sub task or at its end.
+     */
+    private static class PendingTask {
+        private final ITask parent;
+        private final String id;
+        private final String priority;
+        private final String completed;
+        private final String highlighted;
+        private final String highlightingType;
+        private final String estimated;
+        private final String actual;
+        private final String created;
+        private final String title;
+        private final String description;
+        private StringBuilder text;
+        private ITask task;
+
+        public PendingTask(XMLStreamReader reader, ITask parent) {
+            this.parent = parent;
+            id = reader.getAttributeValue(null, TASK_ID);
+            priority = reader.getAttributeValue(null, TASK_PRIORITY);
+            completed = reader.getAttributeValue(null, TASK_COMPLETED);
+            highlighted = reader.getAttributeValue(null, TASK_HIGHLIGHTED);
+            highlightingType = reader.getAttributeValue(null, TASK_HIGHLIGHTING_TYPE);
+            estimated = reader.getAttributeValue(null, TASK_ESTIMATED);
+            actual = reader.getAttributeValue(null, TASK_ACTUAL);
+            created = reader.getAttributeValue(null, TASK_CREATED);
+            title = reader.getAttributeValue(null, TASK_TITLE);
+            description = reader.getAttributeValue(null, TASK_DESCRIPTION);
+        }
+
+        public void appendText(String chars) {
+            if (task == null && (title == null || title.length() == 0)) {
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(chars);
+            }
+        }
+
+        public ITask getTask(ITaskModel model) {
+            if (task == null) {
+                String taskTitle = title;
+                if (taskTitle == null || taskTitle.length() == 0) {
+                    taskTitle = text == null ? "" : text.toString();
+                }
+
+                String taskDescription = StringUtil.unescapeXml(description);
+                if (taskDescription != null && taskDescription.isEmpty()) {
+                    taskDescription = null;
+                }
+
+                task = new TaskBuilder()
+                        .setId(ExternalizeSupport.parseSafelyLong(id, 0))
+                        .setTitle(taskTitle)
+                        .setDescription(taskDescription)
+                        .setPriority(ExternalizeSupport.parseSafelyTaskPriority(priority, TaskPriority.Normal))
+                        .setEstimatedTime(ExternalizeSupport.parseSafelyLong(estimated, 0))
+                        .setActualTime(ExternalizeSupport.parseSafelyLong(actual, 0))
+                        .setCreationTime(ExternalizeSupport.parseSafelyLong(created, System.currentTimeMillis()))
+                        .setCompleted(ExternalizeSupport.parseSafelyBoolean(completed, false))
+                        .setHighlighted(ExternalizeSupport.parseSafelyBoolean(highlighted, false))
+                        .setHighlightingType(ExternalizeSupport.parseSafelyHighlightingType(highlightingType, TaskHighlightingType.Red))
+                        .build();
+
+                model.addTask(parent, task);
+                text = null;
+            }
+
+            return task;
+        }
+    }
+}
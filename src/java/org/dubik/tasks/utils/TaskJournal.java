@@ -0,0 +1,448 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.utils;
+
+import com.intellij.openapi.util.InvalidDataException;
+import org.dubik.tasks.model.*;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Append-only journal of the model changes made since the store was written.
+ * Changes are collected in memory and appended to the journal file on save, on load
+ * they are replayed on top of the store with the same generation.
+ * <p/>
+ * Tasks are addressed by their positions, starting from the top level. Every record
+ * is a type, path of the task and the data: values of the changed task, whole added
+ * task or all sub tasks of a parent, which has been changed by a batch.
+ */
+public class TaskJournal implements ITaskModelChangeListener, TaskTimer.TickListener {
+    private static final int MAGIC = 0x544A524E; //TJRN
+    private static final int VERSION = BinarySerializeSupport.VERSION;
+
+    // amount of records after which the journal should be folded into the store
+    private static final int MAX_RECORDS = 1000;
+
+    private static final int RECORD_ADD = 1;
+    private static final int RECORD_DELETE = 2;
+    private static final int RECORD_CHANGE = 3;
+    private static final int RECORD_REPLACE_CHILDREN = 4;
+
+    private final ITaskModel taskModel;
+    private final File file;
+
+    private ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+    private DataOutputStream pending = new DataOutputStream(pendingBytes);
+    private Set<ITask> timedTasks = Collections.newSetFromMap(new IdentityHashMap<ITask, Boolean>());
+    private int records;
+    private boolean compactionRequired = true;
+    private boolean suspended;
+
+    public TaskJournal(ITaskModel taskModel, File file) {
+        this.taskModel = taskModel;
+        this.file = file;
+    }
+
+    /**
+     * Stops or resumes recording of the changes, e.g. while the store is being read.
+     *
+     * @param suspended <code>true</code> to ignore changes
+     */
+    public void setSuspended(boolean suspended) {
+        this.suspended = suspended;
+    }
+
+    /**
+     * Checks whether the journal can't be appended anymore and the store should be
+     * written completely. It's the case when there is no journal for the current store,
+     * when it has grown too large or when a change can't be recorded in it.
+     *
+     * @return <code>true</code> if the store must be rewritten
+     */
+    public boolean isCompactionRequired() {
+        return compactionRequired || records > MAX_RECORDS;
+    }
+
+    /**
+     * Starts a new empty journal for the store with specified generation.
+     *
+     * @param generation generation of the store
+     * @throws IOException if journal can't be written
+     */
+    public void reset(long generation) throws IOException {
+        clearPending();
+        records = 0;
+        compactionRequired = true;
+
+        File tmpFile = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+        try {
+            out.writeInt(MAGIC);
+            BinarySerializeSupport.writeVarLong(out, VERSION);
+            BinarySerializeSupport.writeVarLong(out, generation);
+            BinarySerializeSupport.writeVarLong(out, taskModel.getLastId());
+        }
+        finally {
+            out.close();
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        compactionRequired = false;
+    }
+
+    /**
+     * Appends collected changes to the journal file.
+     *
+     * @throws IOException if journal can't be written
+     */
+    public void flush() throws IOException {
+        for (ITask task : timedTasks) {
+            recordChange(task);
+        }
+
+        if (pendingBytes.size() > 0) {
+            OutputStream out = new FileOutputStream(file, true);
+            try {
+                pendingBytes.writeTo(out);
+            }
+            finally {
+                out.close();
+            }
+        }
+
+        clearPending();
+    }
+
+    /**
+     * Replays the journal on top of the store with specified generation. If the journal belongs
+     * to other store or it's broken, only the readable records are replayed and the journal
+     * requires compaction.
+     *
+     * @param generation generation of the store which has been read
+     */
+    public void replay(long generation) {
+        clearPending();
+        records = 0;
+        compactionRequired = true;
+
+        if (generation == 0 || !file.isFile()) {
+            return;
+        }
+
+        final ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buffer.getInt() != MAGIC) {
+                return;
+            }
+            if (BinarySerializeSupport.readVarLong(buffer) != VERSION
+                || BinarySerializeSupport.readVarLong(buffer) != generation) {
+                return;
+            }
+            //ids of tasks deleted before the journal was started are kept reserved
+            taskModel.reserveIds(BinarySerializeSupport.readVarLong(buffer));
+        }
+        catch (IOException e) {
+            return;
+        }
+        catch (InvalidDataException e) {
+            return;
+        }
+        catch (BufferUnderflowException e) {
+            return;
+        }
+
+        final boolean[] complete = new boolean[1];
+        taskModel.runBatch(new Runnable() {
+            public void run() {
+                try {
+                    while (buffer.hasRemaining()) {
+                        replayRecord(buffer);
+                        records++;
+                    }
+                    complete[0] = true;
+                }
+                catch (InvalidDataException e) {
+                    e.printStackTrace();
+                }
+                catch (BufferUnderflowException e) {
+                    //last record hasn't been written completely
+                }
+            }
+        });
+
+        compactionRequired = !complete[0];
+    }
+
+    public void handleAddTaskEvent(TaskChangeEvent event) {
+        if (isRecording()) {
+            try {
+                pending.writeByte(RECORD_ADD);
+                writePath(taskPath(event.getTask()));
+                BinarySerializeSupport.writeTasksRecursively(pending, event.getTask());
+                records++;
+            }
+            catch (IOException e) {
+                compactionRequired = true;
+            }
+        }
+    }
+
+    public void handlePreAddTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handlePreDeleteTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleDeleteTaskEvent(TaskChangeEvent event) {
+        if (isRecording()) {
+            try {
+                List<Integer> path = event.getParent() == null ? new ArrayList<Integer>() : taskPath(event.getParent());
+                path.add(event.getIndex());
+
+                pending.writeByte(RECORD_DELETE);
+                writePath(path);
+                records++;
+            }
+            catch (IOException e) {
+                compactionRequired = true;
+            }
+        }
+    }
+
+    public void handlePreChangeTaskEvent(TaskChangeEvent event) {
+    }
+
+    public void handleChangeTaskEvent(TaskChangeEvent event) {
+        if (isRecording()) {
+            recordChange(event.getTask());
+        }
+    }
+
+    public void handleStructureChangeEvent(TaskChangeEvent event) {
+        if (isRecording()) {
+            ITask parent = event.getParent();
+            if (parent == null) {
+                //all tasks have changed, there is nothing to save by journaling them
+                compactionRequired = true;
+                return;
+            }
+            if (event.isAncestorChanged()) {
+                //sub tasks are written together with the ancestor
+                return;
+            }
+
+            try {
+                pending.writeByte(RECORD_REPLACE_CHILDREN);
+                writePath(taskPath(parent));
+                BinarySerializeSupport.writeVarLong(pending, parent.size());
+                for (int i = 0; i < parent.size(); i++) {
+                    BinarySerializeSupport.writeTasksRecursively(pending, parent.get(i));
+                }
+                records++;
+            }
+            catch (IOException e) {
+                compactionRequired = true;
+            }
+        }
+    }
+
+    public void tasksTicked(Collection<ITask> tasks) {
+        if (isRecording()) {
+            //actual time changes every second, so it's recorded only once per save
+            timedTasks.addAll(tasks);
+        }
+    }
+
+    private boolean isRecording() {
+        return !suspended && !compactionRequired;
+    }
+
+    private void recordChange(ITask task) {
+        if (!isInModel(task)) {
+            //e.g. a deleted task which is still running
+            return;
+        }
+
+        try {
+            pending.writeByte(RECORD_CHANGE);
+            writePath(taskPath(task));
+            BinarySerializeSupport.writeTask(pending, task);
+            records++;
+        }
+        catch (IOException e) {
+            compactionRequired = true;
+        }
+    }
+
+    private void clearPending() {
+        pendingBytes.reset();
+        timedTasks.clear();
+    }
+
+    private void replayRecord(ByteBuffer buffer) throws InvalidDataException {
+        int type = buffer.get();
+        List<Integer> path = readPath(buffer);
+        if (path.isEmpty()) {
+            throw new InvalidDataException("journal record has no task");
+        }
+        switch (type) {
+            case RECORD_ADD: {
+                ITask task = BinarySerializeSupport.readTasksRecursively(buffer);
+                ITask parent = findTask(path.subList(0, path.size() - 1));
+                int index = path.get(path.size() - 1);
+
+                taskModel.addTask(parent, task);
+                if (taskModel.indexOf(task) != index) {
+                    taskModel.moveTask(task, parent, index);
+                }
+                break;
+            }
+
+            case RECORD_DELETE:
+                taskModel.deleteTask(findTask(path));
+                break;
+
+            case RECORD_CHANGE: {
+                ITask values = BinarySerializeSupport.readTask(buffer);
+                ITask task = findTask(path);
+                taskModel.updateTask(task, task.getParent(), values.getTitle(), values.getDescription(),
+                                     values.getPriority(), values.getEstimatedTime());
+                taskModel.updateActualTime(task, values.getActualTime());
+                if (values.isCompleted() != task.isCompleted()) {
+                    if (values.isCompleted()) {
+                        taskModel.completeTask(task);
+                    }
+                    else {
+                        taskModel.uncompleteTask(task);
+                    }
+                }
+                if (values.isHighlighted() != task.isHighlighted()) {
+                    if (values.isHighlighted()) {
+                        taskModel.highlightTask(task);
+                    }
+                    else {
+                        taskModel.unhighlightTask(task);
+                    }
+                }
+                taskModel.setTaskHighlightingType(task, values.getHighlightingType());
+                break;
+            }
+
+            case RECORD_REPLACE_CHILDREN: {
+                //whole record is read first, a torn one must leave the sub tasks untouched
+                int count = BinarySerializeSupport.readCount(buffer);
+                List<ITask> children = new ArrayList<ITask>(count);
+                for (int i = 0; i < count; i++) {
+                    children.add(BinarySerializeSupport.readTasksRecursively(buffer));
+                }
+
+                ITask parent = findTask(path);
+                while (parent.size() > 0) {
+                    taskModel.deleteTask(parent.get(parent.size() - 1));
+                }
+                for (ITask child : children) {
+                    deleteMovedTasks(parent, child);
+                    taskModel.addTask(parent, child);
+                }
+                break;
+            }
+
+            default:
+                throw new InvalidDataException("unknown journal record");
+        }
+    }
+
+    /**
+     * Deletes tasks, which a batch has moved to the replaced parent from a parent not
+     * replayed yet. They keep their ids, so the ids are free again for the added tasks.
+     *
+     * @param parent parent which sub tasks are replaced
+     * @param task   task read from the journal
+     * @throws InvalidDataException if the task is the parent or one of its parents
+     */
+    private void deleteMovedTasks(ITask parent, ITask task) throws InvalidDataException {
+        ITask movedTask = task.getId() == 0 ? null : taskModel.findTask(task.getId());
+        if (movedTask != null) {
+            for (ITask p = parent; p != null; p = p.getParent()) {
+                if (p == movedTask) {
+                    throw new InvalidDataException("journal doesn't match the tasks");
+                }
+            }
+            taskModel.deleteTask(movedTask);
+        }
+
+        for (int i = 0; i < task.size(); i++) {
+            deleteMovedTasks(parent, task.get(i));
+        }
+    }
+
+    private List<Integer> taskPath(ITask task) {
+        List<Integer> path = new ArrayList<Integer>();
+        for (ITask t = task; t != null; t = t.getParent()) {
+            path.add(taskModel.indexOf(t));
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+
+    private boolean isInModel(ITask task) {
+        for (ITask t = task; t != null; t = t.getParent()) {
+            if (taskModel.indexOf(t) == -1) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private ITask findTask(List<Integer> path) throws InvalidDataException {
+        ITask task = null;
+        for (int index : path) {
+            int size = task == null ? taskModel.size() : task.size();
+            if (index < 0 || index >= size) {
+                throw new InvalidDataException("journal doesn't match the tasks");
+            }
+
+            task = task == null ? taskModel.getTask(index) : task.get(index);
+        }
+
+        return task;
+    }
+
+    private void writePath(List<Integer> path) throws IOException {
+        BinarySerializeSupport.writeVarLong(pending, path.size());
+        for (int index : path) {
+            BinarySerializeSupport.writeVarLong(pending, index);
+        }
+    }
+
+    private List<Integer> readPath(ByteBuffer buffer) throws InvalidDataException {
+        int size = BinarySerializeSupport.readCount(buffer);
+        List<Integer> path = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            path.add((int) BinarySerializeSupport.readVarLong(buffer));
+        }
+
+        return path;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.utils;
+
+import com.intellij.openapi.util.InvalidDataException;
+import com.intellij.openapi.util.WriteExternalException;
+import org.dubik.tasks.model.ITaskModel;
+import org.jdom.Element;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Keeps tasks in files next to the settings file. Settings element only references
+ * the files. Tasks are written to the XML store, optionally also to a binary
+ * snapshot which is faster to load. Both carry the generation of the store, snapshot is
+ * used only if it was written together with the XML store.
+ * <p/>
+ * Changes made after the store has been written are appended to a journal, so
+ * a save doesn't rewrite all tasks. When the journal grows too large, it's folded
+ * into a new generation of the store.
+ */
+public class TaskStore {
+    private static final String XML_FILE_NAME = "tasks-store.xml";
+    private static final String SNAPSHOT_FILE_NAME = "tasks-store.bin";
+    private static final String JOURNAL_FILE_NAME = "tasks-journal.bin";
+
+    private final ITaskModel taskModel;
+    private final File directory;
+    private final TaskJournal journal;
+
+    private long generation;
+    private boolean hasSnapshot;
+    // settings reference the XML store, but it couldn't be found or read completely
+    private boolean storeUnreadable;
+
+    // modification stamp of the model when the store was last read or written
+    private long storedStamp = -1;
+
+    public TaskStore(ITaskModel taskModel, File directory) {
+        this.taskModel = taskModel;
+        this.directory = directory;
+        this.journal = new TaskJournal(taskModel, new File(directory, JOURNAL_FILE_NAME));
+    }
+
+    /**
+     * Starts recording changes of the tasks.
+     */
+    public void install() {
+        taskModel.addChangeListener(journal);
+        TaskTimer.addTickListener(journal);
+    }
+
+    public void dispose() {
+        TaskTimer.removeTickListener(journal);
+        taskModel.removeChangeListener(journal);
+    }
+
+    public void read(Element element) throws InvalidDataException {
+        journal.setSuspended(true);
+        try {
+            generation = 0;
+            hasSnapshot = false;
+            storeUnreadable = false;
+
+            if (!XML_FILE_NAME.equals(SerializeSupport.readStoreReference(element))) {
+                //tasks are kept in the settings element
+                SerializeSupport.readExternal(taskModel, element);
+                return;
+            }
+
+            if (!getXmlFile().isFile()) {
+                //writing the empty model would replace the store, keep it untouched instead
+                storeUnreadable = true;
+                InvalidDataException e = new InvalidDataException("Tasks store is missing: " + getXmlFile());
+                e.printStackTrace();
+                throw e;
+            }
+
+            generation = StreamingSerializeSupport.readGeneration(getXmlFile());
+            if (generation != 0 && getSnapshotFile().isFile()) {
+                try {
+                    BinarySerializeSupport.readTasks(taskModel, getSnapshotFile(), generation);
+                    hasSnapshot = true;
+                }
+                catch (InvalidDataException e) {
+                    //model is untouched, XML store has the same tasks
+                    e.printStackTrace();
+                }
+            }
+
+            if (!hasSnapshot) {
+                try {
+                    StreamingSerializeSupport.readTasks(taskModel, getXmlFile());
+                }
+                catch (InvalidDataException e) {
+                    //model has only the tasks read before the damaged part, writing it would lose the rest
+                    storeUnreadable = true;
+                    throw e;
+                }
+            }
+
+            journal.replay(generation);
+            storedStamp = journal.isCompactionRequired() ? -1 : taskModel.getModificationStamp();
+        }
+        finally {
+            //changes can't be appended to a missing or damaged store
+            journal.setSuspended(storeUnreadable);
+        }
+    }
+
+    /**
+     * Writes changed tasks to the store. If the store was missing or damaged when the tasks
+     * were read, nothing is written and the settings keep referencing it, so the store is
+     * read again once it's restored.
+     *
+     * @param element       settings element
+     * @param writeSnapshot whether to keep also binary snapshot of the tasks
+     * @throws WriteExternalException if tasks can't be written
+     */
+    public void write(Element element, boolean writeSnapshot) throws WriteExternalException {
+        if (storeUnreadable) {
+            SerializeSupport.writeStoreReference(element, XML_FILE_NAME);
+            return;
+        }
+
+        if (generation != 0 && hasSnapshot == writeSnapshot && !journal.isCompactionRequired()) {
+            if (storedStamp == taskModel.getModificationStamp()) {
+                //nothing has changed since the last save
+                SerializeSupport.writeStoreReference(element, XML_FILE_NAME);
+                return;
+            }
+
+            try {
+                journal.flush();
+                SerializeSupport.writeStoreReference(element, XML_FILE_NAME);
+                storedStamp = taskModel.getModificationStamp();
+                return;
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        compact(element, writeSnapshot);
+    }
+
+    /**
+     * Writes all tasks as a new generation of the store and starts a new journal for it.
+     */
+    private void compact(Element element, boolean writeSnapshot) throws WriteExternalException {
+        long newGeneration = Math.max(System.currentTimeMillis(), generation + 1);
+        try {
+            StreamingSerializeSupport.writeTasks(taskModel, getXmlFile(), newGeneration);
+            SerializeSupport.writeStoreReference(element, XML_FILE_NAME);
+        }
+        catch (WriteExternalException e) {
+            //keep tasks in the settings element, if they can't be stored separately
+            e.printStackTrace();
+            SerializeSupport.writeExternal(taskModel, element);
+            generation = 0;
+            return;
+        }
+
+        generation = newGeneration;
+        hasSnapshot = false;
+        storedStamp = taskModel.getModificationStamp();
+        if (writeSnapshot) {
+            try {
+                BinarySerializeSupport.writeTasks(taskModel, getSnapshotFile(), generation);
+                hasSnapshot = true;
+            }
+            catch (WriteExternalException e) {
+                e.printStackTrace();
+            }
+        }
+
+        try {
+            journal.reset(generation);
+        }
+        catch (IOException e) {
+            //journal of the previous generation is ignored, next save will try again
+            e.printStackTrace();
+        }
+    }
+
+    private File getXmlFile() {
+        return new File(directory, XML_FILE_NAME);
+    }
+
+    private File getSnapshotFile() {
+        return new File(directory, SNAPSHOT_FILE_NAME);
+    }
+}
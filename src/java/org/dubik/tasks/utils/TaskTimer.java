@@ -22,49 +22,145 @@ import org.dubik.tasks.model.impl.Task;
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EventListener;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Measures actual time of running tasks. All running tasks share one timer, elapsed
+ * time is calculated from the moment the task was started, so missed or late
+ * ticks don't make the time drift.
+ */
 public class TaskTimer {
-    private static Map<ITask, TaskTimer.Runner> timers = new HashMap<ITask, TaskTimer.Runner>();
+    private static final int TICK_INTERVAL = 1000;
 
-    public static void startTask(ITask task) {
-        Runner runner = new Runner(task);
-        runner.setRepeats(true);
-        timers.put(task, runner);
-        runner.start();
+    private static Map<ITask, Runner> runners = new IdentityHashMap<ITask, Runner>();
+    private static List<TickListener> listeners = new ArrayList<TickListener>();
+    private static Timer ticker;
 
+    public static void startTask(ITask task) {
+        if (!runners.containsKey(task)) {
+            runners.put(task, new Runner((Task) task));
+            startTicker();
+        }
     }
 
     public static void stopTask(ITask task) {
-        Runner runner = timers.get(task);
+        Runner runner = runners.remove(task);
         if (runner != null) {
-            runner.stop();
-            timers.remove(task);
+            if (runner.update(System.nanoTime())) {
+                fireTasksTicked(Collections.<ITask>singletonList(task));
+            }
+            if (runners.isEmpty()) {
+                stopTicker();
+            }
         }
     }
 
     public static void stopAllTimers() {
-        for (Iterator<Map.Entry<ITask, Runner>> iterator = timers.entrySet().iterator(); iterator.hasNext(); ) {
-            Map.Entry<ITask, Runner> entry = iterator.next();
-            entry.getValue().stop();
-            iterator.remove();
+        long now = System.nanoTime();
+        for (Runner runner : runners.values()) {
+            runner.update(now);
         }
+
+        runners.clear();
+        stopTicker();
+    }
+
+    /**
+     * Adds listener which is notified once per tick about all tasks
+     * whose actual time has changed.
+     *
+     * @param listener tick listener
+     */
+    public static void addTickListener(TickListener listener) {
+        listeners.add(listener);
+    }
+
+    public static void removeTickListener(TickListener listener) {
+        listeners.remove(listener);
     }
 
-    private static class Runner extends Timer {
-        public Runner(final ITask task) {
-            super(1000, new ActionListener() {
+    private static void startTicker() {
+        if (ticker == null) {
+            ticker = new Timer(TICK_INTERVAL, new ActionListener() {
                 public void actionPerformed(ActionEvent e) {
-                    ((Task)task).setActualTime( task.getActualTime() + 1);
+                    tick();
                 }
             });
+            ticker.setRepeats(true);
+            ticker.start();
+        }
+    }
+
+    private static void stopTicker() {
+        if (ticker != null) {
+            ticker.stop();
+            ticker = null;
         }
+    }
+
+    private static void tick() {
+        long now = System.nanoTime();
+        List<ITask> changedTasks = new ArrayList<ITask>();
+        for (Runner runner : runners.values()) {
+            if (runner.update(now)) {
+                changedTasks.add(runner.task);
+            }
+        }
+
+        if (!changedTasks.isEmpty()) {
+            fireTasksTicked(changedTasks);
+        }
+    }
 
+    private static void fireTasksTicked(List<ITask> tasks) {
+        for (TickListener listener : new ArrayList<TickListener>(listeners)) {
+            listener.tasksTicked(tasks);
+        }
+    }
 
+    public static interface TickListener extends EventListener {
+        /**
+         * Called after actual time of running tasks has been updated.
+         *
+         * @param tasks tasks whose actual time has changed
+         */
+        public void tasksTicked(Collection<ITask> tasks);
     }
 
+    private static class Runner {
+        private final Task task;
+        private final long startTime;
+        // whole seconds since the start, which have been already added to the task
+        private long addedSeconds;
+
+        public Runner(Task task) {
+            this.task = task;
+            this.startTime = System.nanoTime();
+        }
 
+        /**
+         * Adds seconds elapsed since the last update to the actual time of the task.
+         * Actual time set meanwhile by someone else, e.g. edited by the user, is kept.
+         *
+         * @param now current value of {@link System#nanoTime()}
+         * @return <code>true</code> if actual time has changed
+         */
+        public boolean update(long now) {
+            long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(now - startTime);
+            if (elapsedSeconds != addedSeconds) {
+                task.setActualTime(task.getOwnActualTime() + elapsedSeconds - addedSeconds);
+                addedSeconds = elapsedSeconds;
+                return true;
+            }
 
+            return false;
+        }
+    }
 }
@@ -52,6 +52,9 @@ public class UIUtil {
 
     private static final ToolTipUI progressTooltipUI = new ProgressTooltipUI();
 
+    // icons of highlighted tasks, composed once per priority and highlighting type
+    private static final Icon[][] highlightedIcons = new Icon[TaskPriority.values().length][TaskHighlightingType.values().length];
+
     public static Icon getIcon(@NotNull String path) {
         Icon icon = iconMap.get(path);
         if (icon == null) {
@@ -64,34 +67,58 @@ public class UIUtil {
 
     @NotNull
     public static Icon createIcon(@NotNull ITask task) {
-        Icon taskIcon;
+        return createIcon(task, TaskSettingsService.getSettings());
+    }
+
+    /**
+     * Returns icon of the task, highlighted tasks get the star of their highlighting.
+     * Icons are shared, so the returned icon must not be modified.
+     *
+     * @param task     task
+     * @param settings plugin settings
+     * @return icon of the task
+     */
+    @NotNull
+    public static Icon createIcon(@NotNull ITask task, @NotNull TaskSettings settings) {
+        TaskPriority priority = findPriority(task, settings);
         if (task.isHighlighted()) {
-            LayeredIcon layeredIcon = new LayeredIcon(2);
-            layeredIcon.setIcon(findIcon(task), 0, 0, 0);
-            layeredIcon.setIcon(findIcon(task.getHighlightingType()), 1, 17, 0);
-            taskIcon = layeredIcon;
+            return findHighlightedIcon(priority, task.getHighlightingType());
         }
-        else {
-            taskIcon = findIcon(task);
+
+        return findIcon(priority);
+    }
+
+    @NotNull
+    private static Icon findHighlightedIcon(@NotNull TaskPriority priority, @NotNull TaskHighlightingType highlightingType) {
+        Icon icon = highlightedIcons[priority.ordinal()][highlightingType.ordinal()];
+        if (icon == null) {
+            LayeredIcon layeredIcon = new LayeredIcon(2);
+            layeredIcon.setIcon(findIcon(priority), 0, 0, 0);
+            layeredIcon.setIcon(findIcon(highlightingType), 1, 17, 0);
+            icon = layeredIcon;
+            highlightedIcons[priority.ordinal()][highlightingType.ordinal()] = icon;
         }
 
-        return taskIcon;
+        return icon;
     }
 
     @NotNull
     public static Icon findIcon(@NotNull ITask task) {
-        TaskSettings settings = TaskSettingsService.getSettings();
+        return findIcon(task, TaskSettingsService.getSettings());
+    }
 
-        TaskPriority priority;
+    @NotNull
+    public static Icon findIcon(@NotNull ITask task, @NotNull TaskSettings settings) {
+        return findIcon(findPriority(task, settings));
+    }
 
+    @NotNull
+    private static TaskPriority findPriority(@NotNull ITask task, @NotNull TaskSettings settings) {
         if (settings.isPropagatePriority()) {
-            priority = findHighestPriorityRecursively(task, settings.isPriorityPropagatedOneLevelOnly());
-        }
-        else {
-            priority = task.getPriority();
+            return task.getHighestPriority(settings.isPriorityPropagatedOneLevelOnly());
         }
 
-        return findIcon(priority);
+        return task.getPriority();
     }
 
     public static Icon findIcon(@NotNull TaskPriority priority) {
@@ -121,24 +148,6 @@ public class UIUtil {
         }
     }
 
-    private static TaskPriority findHighestPriorityRecursively(ITask task, boolean onlyFirstLevel) {
-        TaskPriority taskPriority = task.getPriority();
-
-        for (int i = 0; i < task.size(); i++) {
-            ITask subTask = task.get(i);
-
-            if (onlyFirstLevel) {
-                taskPriority = taskPriority.max(subTask.getPriority());
-            }
-            else {
-                taskPriority = taskPriority.max(findHighestPriorityRecursively(subTask, false));
-            }
-        }
-
-        return taskPriority;
-    }
-
-
     @NotNull
     public static JPopupMenu createTaskTreePopup(String actionGroupId) {
         ActionGroup actionGroup = (ActionGroup) ActionManager.getInstance().getAction(actionGroupId);
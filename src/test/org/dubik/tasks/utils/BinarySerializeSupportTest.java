@@ -0,0 +1,222 @@
+/*
+ * Copyright 2013 Sergiy Dubovik, WarnerJan Veldhuis
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dubik.tasks.utils;
+
+import com.intellij.openapi.util.InvalidDataException;
+import org.dubik.tasks.model.ITask;
+import org.dubik.tasks.model.ITaskModel;
+import org.dubik.tasks.model.TaskHighlightingType;
+import org.dubik.tasks.model.TaskPriority;
+import org.dubik.tasks.model.impl.TaskBuilder;
+import org.dubik.tasks.model.impl.TaskModel;
+import org.jdom.Element;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Binary snapshot must keep the same tasks as the XML formats, so a model read
+ * from any of them is compared with the others.
+ */
+public class BinarySerializeSupportTest {
+    private static final long GENERATION = 42;
+    private static final int MAGIC = 0x5441534B;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TaskModel model;
+
+    @Before
+    public void setUp() {
+        model = new TaskModel();
+
+        //every priority and highlighting type, so all ordinals are written
+        TaskPriority[] priorities = TaskPriority.values();
+        TaskHighlightingType[] types = TaskHighlightingType.values();
+        for (int i = 0; i < Math.max(priorities.length, types.length); i++) {
+            model.addTask(null, new TaskBuilder()
+                    .setTitle("Task " + i)
+                    .setPriority(priorities[i % priorities.length])
+                    .setHighlightingType(types[i % types.length])
+                    .setHighlighted(i % 2 == 0)
+                    .setCompleted(i % 2 == 1)
+                    .setEstimatedTime(60 * i)
+                    .setActualTime(30 * i)
+                    .setCreationTime(1000000L * i)
+                    .build());
+        }
+
+        //descriptions: none, empty and with characters escaped in XML
+        ITask parent = model.addTask(null, new TaskBuilder().setTitle("Parent").setDescription("").build());
+        ITask child = model.addTask(parent, new TaskBuilder()
+                .setTitle("Child 任务")
+                .setDescription("<first> & \"second\" line")
+                .build());
+        ITask grandChild = model.addTask(child, new TaskBuilder().setTitle("Grand child").setCompleted(true).build());
+        model.addTask(grandChild, new TaskBuilder().setTitle("Deepest").setActualTime(120).build());
+        model.addTask(parent, new TaskBuilder().setTitle("Second child").build());
+    }
+
+    @Test
+    public void binaryRoundTripKeepsAllValues() throws Exception {
+        TaskModel read = new TaskModel();
+        BinarySerializeSupport.readTasks(read, ByteBuffer.wrap(writeBinary(model, GENERATION)), GENERATION);
+
+        assertEquals(dump(model), dump(read));
+    }
+
+    @Test
+    public void binaryMatchesXmlFormats() throws Exception {
+        TaskModel fromBinary = new TaskModel();
+        BinarySerializeSupport.readTasks(fromBinary, ByteBuffer.wrap(writeBinary(model, GENERATION)), GENERATION);
+
+        Element element = new Element("component");
+        SerializeSupport.writeExternal(model, element);
+        TaskModel fromElement = new TaskModel();
+        SerializeSupport.readExternal(fromElement, element);
+
+        ByteArrayOutputStream xml = new ByteArrayOutputStream();
+        StreamingSerializeSupport.writeTasks(model, xml, GENERATION);
+        TaskModel fromStream = new TaskModel();
+        StreamingSerializeSupport.readTasks(fromStream, new ByteArrayInputStream(xml.toByteArray()));
+
+        assertEquals(dump(fromElement), dump(fromBinary));
+        assertEquals(dump(fromStream), dump(fromBinary));
+    }
+
+    @Test
+    public void idsOfDeletedTasksAreNotGivenAgain() throws Exception {
+        ITask newest = model.addTask(null, new TaskBuilder().setTitle("Newest").build());
+        model.deleteTask(newest);
+
+        TaskModel read = new TaskModel();
+        BinarySerializeSupport.readTasks(read, ByteBuffer.wrap(writeBinary(model, GENERATION)), GENERATION);
+        ITask added = read.addTask(null, new TaskBuilder().setTitle("Added").build());
+
+        assertTrue(added.getId() > newest.getId());
+    }
+
+    @Test
+    public void negativeOrdinalIsInvalidData() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writeHeader(out);
+        BinarySerializeSupport.writeVarLong(out, 1);
+        BinarySerializeSupport.writeString(out, "Task");
+        BinarySerializeSupport.writeVarLong(out, 0);
+        BinarySerializeSupport.writeVarLong(out, -1);
+        out.close();
+
+        TaskModel read = new TaskModel();
+        try {
+            BinarySerializeSupport.readTasks(read, ByteBuffer.wrap(bytes.toByteArray()), GENERATION);
+            fail("negative priority ordinal must be rejected");
+        }
+        catch (InvalidDataException e) {
+            assertEquals(0, read.size());
+        }
+    }
+
+    @Test
+    public void otherGenerationIsRejected() throws Exception {
+        TaskModel read = new TaskModel();
+        try {
+            BinarySerializeSupport.readTasks(read, ByteBuffer.wrap(writeBinary(model, GENERATION + 1)), GENERATION);
+            fail("snapshot of other generation must be rejected");
+        }
+        catch (InvalidDataException e) {
+            assertEquals(0, read.size());
+        }
+    }
+
+    @Test
+    public void storeFallsBackToXmlOnGenerationMismatch() throws Exception {
+        File directory = folder.newFolder("store");
+        TaskStore store = new TaskStore(model, directory);
+        Element element = new Element("component");
+        store.write(element, true);
+
+        //snapshot with other tasks, as if it was left from another save
+        TaskModel other = new TaskModel();
+        other.addTask(null, new TaskBuilder().setTitle("Stale").build());
+        BinarySerializeSupport.writeTasks(other, new File(directory, "tasks-store.bin"), 1);
+
+        TaskModel read = new TaskModel();
+        new TaskStore(read, directory).read(element);
+
+        assertEquals(dump(model), dump(read));
+    }
+
+    private static byte[] writeBinary(ITaskModel taskModel, long generation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        BinarySerializeSupport.writeTasks(taskModel, out, generation);
+        out.close();
+
+        return bytes.toByteArray();
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        BinarySerializeSupport.writeVarLong(out, BinarySerializeSupport.VERSION);
+        BinarySerializeSupport.writeVarLong(out, GENERATION);
+        BinarySerializeSupport.writeVarLong(out, 0);
+    }
+
+    /**
+     * Lists all values of the tasks. Empty description is stored as no description by all formats.
+     */
+    private static String dump(ITaskModel taskModel) {
+        StringBuilder dump = new StringBuilder();
+        Set<Long> ids = new HashSet<Long>();
+        for (int i = 0; i < taskModel.size(); i++) {
+            dump(taskModel.getTask(i), "", dump, ids);
+        }
+
+        return dump.toString();
+    }
+
+    private static void dump(ITask task, String indent, StringBuilder dump, Set<Long> ids) {
+        assertTrue("duplicate id " + task.getId(), ids.add(task.getId()));
+        dump.append(indent)
+                .append(task.getId()).append(' ')
+                .append(task.getTitle()).append(" [")
+                .append(task.getDescription() == null ? "" : task.getDescription()).append("] ")
+                .append(task.getPriority().name()).append(' ')
+                .append(task.getHighlightingType().name()).append(' ')
+                .append(task.isHighlighted()).append(' ')
+                .append(task.isCompleted()).append(' ')
+                .append(task.getEstimatedTime()).append(' ')
+                .append(task.getActualTime()).append(' ')
+                .append(task.getCreationTime()).append('\n');
+        for (int i = 0; i < task.size(); i++) {
+            dump(task.get(i), indent + "  ", dump, ids);
+        }
+    }
+}